@@ -2,6 +2,7 @@ package edu.univ.erp;
 
 import com.formdev.flatlaf.FlatDarculaLaf;
 import edu.univ.erp.service.AuthService;
+import edu.univ.erp.service.PasswordPolicy;
 import edu.univ.erp.ui.LoginFrame;
 import edu.univ.erp.ui.MainFrame;
 import edu.univ.erp.ui.util.UIStyle;
@@ -21,6 +22,9 @@ public class SISApplication {
         // Ensure database has data (Seed)
         edu.univ.erp.util.DatabaseSeeder.seedIfEmpty();
 
+        // Benchmark this host once to pick the BCrypt cost before the first login
+        PasswordPolicy.getInstance();
+
         SwingUtilities.invokeLater(() -> {
             try {
                 // Set modern dark theme
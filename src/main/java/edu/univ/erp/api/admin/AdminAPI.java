@@ -73,10 +73,11 @@ public class AdminAPI {
     public ApiResponse<List<edu.univ.erp.api.types.InstructorRow>> getAllInstructors() {
         try {
             List<edu.univ.erp.model.Instructor> instructors = adminService.getAllInstructors();
+            java.util.Map<Integer, String> names = adminService.getUsernames(
+                    instructors.stream().map(edu.univ.erp.model.Instructor::getUserId).collect(Collectors.toList()));
             List<edu.univ.erp.api.types.InstructorRow> rows = new java.util.ArrayList<>();
             for (edu.univ.erp.model.Instructor i : instructors) {
-                edu.univ.erp.model.User user = adminService.getUser(i.getUserId());
-                String name = user != null ? user.getUsername() : "Unknown";
+                String name = names.getOrDefault(i.getUserId(), "Unknown");
                 rows.add(new edu.univ.erp.api.types.InstructorRow(i.getUserId(), name, i.getDepartment()));
             }
             return ApiResponse.success(rows);
@@ -88,18 +89,22 @@ public class AdminAPI {
     public ApiResponse<List<SectionRow>> getAllSections() {
         try {
             List<edu.univ.erp.model.Section> sections = adminService.getAllSections();
+            java.util.Set<Integer> instructorIds = new java.util.HashSet<>();
+            for (edu.univ.erp.model.Section s : sections) {
+                if (s.getInstructorId() != null) {
+                    instructorIds.add(s.getInstructorId());
+                }
+            }
+            java.util.Map<Integer, String> instructorNames = adminService.getUsernames(instructorIds);
+
             List<SectionRow> rows = new java.util.ArrayList<>();
             for (edu.univ.erp.model.Section s : sections) {
-                int enrolled = adminService.getEnrollmentCount(s.getSectionId());
                 String instructorName = "TBD";
                 if (s.getInstructorId() != null) {
-                    edu.univ.erp.model.User u = adminService.getUser(s.getInstructorId());
-                    if (u != null) {
-                        instructorName = u.getUsername();
-                    }
+                    instructorName = instructorNames.getOrDefault(s.getInstructorId(), "TBD");
                 }
                 rows.add(new SectionRow(s.getSectionId(), s.getCourseId(), s.getDayTime(), s.getRoom(), s.getCapacity(),
-                        enrolled, instructorName));
+                        s.getSeatsTaken(), instructorName));
             }
             return ApiResponse.success(rows);
         } catch (SQLException e) {
@@ -110,10 +115,11 @@ public class AdminAPI {
     public ApiResponse<List<StudentRow>> getAllStudents() {
         try {
             List<edu.univ.erp.model.Student> students = adminService.getAllStudents();
+            java.util.Map<Integer, String> names = adminService.getUsernames(
+                    students.stream().map(edu.univ.erp.model.Student::getUserId).collect(Collectors.toList()));
             List<StudentRow> rows = new java.util.ArrayList<>();
             for (edu.univ.erp.model.Student s : students) {
-                edu.univ.erp.model.User u = adminService.getUser(s.getUserId());
-                String name = u != null ? u.getUsername() : "Unknown";
+                String name = names.getOrDefault(s.getUserId(), "Unknown");
                 rows.add(new StudentRow(s.getUserId(), name, s.getRollNumber(), s.getProgram()));
             }
             return ApiResponse.success(rows);
@@ -140,6 +146,21 @@ public class AdminAPI {
         }
     }
 
+    public ApiResponse<edu.univ.erp.api.types.ClassStatistics> getDepartmentStatistics(String department) {
+        try {
+            edu.univ.erp.model.ClassStatistics stats = adminService.getDepartmentStatistics(department);
+            return ApiResponse.success(new edu.univ.erp.api.types.ClassStatistics(
+                    stats.getAverageScore(),
+                    stats.getMinScore(),
+                    stats.getMaxScore(),
+                    stats.getStdDev(),
+                    stats.getStudentCount(),
+                    stats.getGradeDistribution()));
+        } catch (SQLException | ServiceException e) {
+            return ApiResponse.error(e.getMessage());
+        }
+    }
+
     public ApiResponse<Integer> countActiveEnrollments() {
         try {
             return ApiResponse.success(adminService.countActiveEnrollments());
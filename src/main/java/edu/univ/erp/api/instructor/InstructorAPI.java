@@ -26,21 +26,8 @@ public class InstructorAPI {
             List<Section> sections = instructorService.getSectionsForInstructor(instructorId);
             List<SectionRow> rows = new ArrayList<>();
             for (Section s : sections) {
-                Course course = instructorService.getCourseForSection(s.getSectionId());
-                String courseCode = course != null ? course.getCode() : "Unknown";
-                // We don't have enrollment count here easily without calling another service,
-                // but SectionRow expects it.
-                // For instructor view, maybe we can skip it or fetch it.
-                // Let's fetch it if possible, or use 0 for now and update if needed.
-                // Actually InstructorService doesn't expose getEnrollmentCount directly.
-                // But we can use EnrollmentDao internally in Service if we wanted.
-                // For now, let's use 0 or modify SectionRow to make it optional?
-                // SectionRow is a record, so no optional.
-                // Let's check if we can add getEnrollmentCount to InstructorService.
-                // Or just leave it as 0 for now as it might not be critical for this view.
-                // Wait, SectionRow is shared.
                 rows.add(new SectionRow(s.getSectionId(), s.getCourseId(), s.getDayTime(), s.getRoom(), s.getCapacity(),
-                        0, "Self"));
+                        s.getSeatsTaken(), "Self"));
             }
             return ApiResponse.success(rows);
         } catch (SQLException e) {
@@ -123,6 +110,34 @@ public class InstructorAPI {
         }
     }
 
+    public ApiResponse<List<AttendanceRow>> getSectionAttendance(int instructorId, int sectionId, LocalDate date) {
+        try {
+            List<AttendanceRow> rows = instructorService.getSectionAttendance(instructorId, sectionId, date).stream()
+                    .map(a -> new AttendanceRow(a.getAttendanceId(), a.getEnrollmentId(), a.getDate(), a.getStatus()))
+                    .collect(Collectors.toList());
+            return ApiResponse.success(rows);
+        } catch (ServiceException e) {
+            return ApiResponse.error(e.getMessage());
+        } catch (SQLException e) {
+            return ApiResponse.error("Database error: " + e.getMessage());
+        }
+    }
+
+    public ApiResponse<Void> markSectionAttendance(int instructorId, int sectionId, LocalDate date,
+            List<AttendanceRow> rows) {
+        try {
+            List<Attendance> roster = rows.stream()
+                    .map(r -> new Attendance(r.attendanceId(), r.enrollmentId(), date, r.status()))
+                    .collect(Collectors.toList());
+            instructorService.markSectionAttendance(instructorId, sectionId, date, roster);
+            return ApiResponse.success(null);
+        } catch (ServiceException e) {
+            return ApiResponse.error(e.getMessage());
+        } catch (SQLException e) {
+            return ApiResponse.error("Database error: " + e.getMessage());
+        }
+    }
+
     public ApiResponse<ClassStatistics> getClassStatistics(int instructorId, int sectionId) {
         try {
             edu.univ.erp.model.ClassStatistics stats = instructorService.getClassStatistics(instructorId, sectionId);
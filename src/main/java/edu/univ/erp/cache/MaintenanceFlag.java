@@ -0,0 +1,78 @@
+package edu.univ.erp.cache;
+
+import edu.univ.erp.config.DatabaseConfig;
+import edu.univ.erp.config.UnitOfWork;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide copy of the maintenance flag, so write paths can check that the
+ * system is writable without a query. The value is re-read through the
+ * caller's loader once it is older than settings.maintenanceRefreshMillis;
+ * AdminService pushes every change made by this process immediately.
+ *
+ * A flip made by another client is seen within one refresh interval. Inside a
+ * UnitOfWork a pushed value is dropped again when the unit completes, so a
+ * rolled-back change is re-read rather than trusted.
+ */
+public class MaintenanceFlag {
+    private static MaintenanceFlag instance;
+
+    private final long refreshNanos;
+    private volatile boolean maintenance;
+    // System.nanoTime() of the last load or push; 0 forces a reload
+    private volatile long refreshedAt;
+
+    MaintenanceFlag(long refreshMillis) {
+        this.refreshNanos = TimeUnit.MILLISECONDS.toNanos(refreshMillis);
+    }
+
+    public static synchronized MaintenanceFlag getInstance() {
+        if (instance == null) {
+            instance = new MaintenanceFlag(DatabaseConfig.load().getInt("settings.maintenanceRefreshMillis", 5000));
+        }
+        return instance;
+    }
+
+    public boolean isMaintenanceMode(Loader loader) throws SQLException {
+        long loadedAt = refreshedAt;
+        if (loadedAt != 0 && System.nanoTime() - loadedAt < refreshNanos) {
+            return maintenance;
+        }
+        return refresh(loadedAt, loader);
+    }
+
+    private synchronized boolean refresh(long staleAt, Loader loader) throws SQLException {
+        // Another thread may have reloaded while this one waited for the lock
+        if (refreshedAt != staleAt) {
+            return maintenance;
+        }
+        maintenance = loader.load();
+        refreshedAt = System.nanoTime();
+        return maintenance;
+    }
+
+    /**
+     * Records a value this process has just written to the settings table.
+     */
+    public synchronized void update(boolean maintenance) {
+        this.maintenance = maintenance;
+        this.refreshedAt = System.nanoTime();
+        if (UnitOfWork.isActive()) {
+            UnitOfWork.afterCompletion(this::invalidate);
+        }
+    }
+
+    /**
+     * Forces the next check to read the settings table.
+     */
+    public synchronized void invalidate() {
+        refreshedAt = 0;
+    }
+
+    @FunctionalInterface
+    public interface Loader {
+        boolean load() throws SQLException;
+    }
+}
@@ -0,0 +1,133 @@
+package edu.univ.erp.cache;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, time-limited read-through cache for rarely changing reference data.
+ * Entries are evicted least-recently-used once maxSize is reached and reloaded
+ * after ttlMillis. Values are shared between callers and must not be mutated.
+ */
+public class ReferenceCache<K, V> {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<K, Entry<V>> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // Bumped on every invalidation so a load that raced with it is not stored
+    private long generation;
+
+    public ReferenceCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > ReferenceCache.this.maxSize;
+            }
+        };
+    }
+
+    public V get(K key, Loader<K, V> loader) throws SQLException {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && System.nanoTime() < entry.expiresAt) {
+                hits.incrementAndGet();
+                return entry.value;
+            }
+            loadGeneration = generation;
+        }
+
+        misses.incrementAndGet();
+        V value = loader.load(key);
+
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Resolves several keys at once, loading every miss with one call to the
+     * bulk loader. Keys the loader does not return are absent from the result
+     * and are not cached.
+     */
+    public Map<K, V> getAll(Collection<K> keys, BulkLoader<K, V> loader) throws SQLException {
+        Map<K, V> result = new HashMap<>();
+        Set<K> missing = new LinkedHashSet<>();
+        long loadGeneration;
+        synchronized (this) {
+            long now = System.nanoTime();
+            for (K key : keys) {
+                Entry<V> entry = entries.get(key);
+                if (entry != null && now < entry.expiresAt) {
+                    result.put(key, entry.value);
+                } else {
+                    missing.add(key);
+                }
+            }
+            loadGeneration = generation;
+        }
+        hits.addAndGet(result.size());
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        misses.addAndGet(missing.size());
+        Map<K, V> loaded = loader.loadAll(missing);
+
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                long expiresAt = System.nanoTime() + ttlNanos;
+                loaded.forEach((key, value) -> entries.put(key, new Entry<>(value, expiresAt)));
+            }
+        }
+        result.putAll(loaded);
+        return result;
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        V load(K key) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface BulkLoader<K, V> {
+        Map<K, V> loadAll(Collection<K> keys) throws SQLException;
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
@@ -0,0 +1,83 @@
+package edu.univ.erp.cache;
+
+import edu.univ.erp.config.UnitOfWork;
+import edu.univ.erp.model.Course;
+import edu.univ.erp.model.Identity;
+import edu.univ.erp.model.Section;
+
+import java.util.Optional;
+
+/**
+ * Process-wide cache of course, section and user identity reference data shared
+ * by every CourseDao, SectionDao and UserDao instance. Course and section
+ * lookups that find nothing are cached too, so writes to those tables must
+ * invalidate the affected key. Identities never carry credentials or lockout
+ * state; login and permission checks always read users_auth directly.
+ *
+ * EnrollmentDao invalidates a section whenever its seat counter moves, so
+ * seats_taken is current for changes made by this process; writes from other
+ * clients become visible once the entry expires.
+ *
+ * Inside a UnitOfWork, invalidations are repeated when the unit completes so
+ * that entries loaded from its uncommitted rows do not outlive a rollback.
+ */
+public class ReferenceDataCache {
+    private static final int MAX_COURSES = 1000;
+    private static final int MAX_SECTIONS = 5000;
+    private static final long COURSE_TTL_MILLIS = 10 * 60 * 1000L;
+    private static final long SECTION_TTL_MILLIS = 2 * 60 * 1000L;
+    private static final int MAX_IDENTITIES = 10000;
+    private static final long IDENTITY_TTL_MILLIS = 10 * 60 * 1000L;
+
+    private static ReferenceDataCache instance;
+
+    private final ReferenceCache<String, Optional<Course>> courses;
+    private final ReferenceCache<Integer, Optional<Section>> sections;
+    private final ReferenceCache<Integer, Identity> identities;
+
+    private ReferenceDataCache() {
+        this.courses = new ReferenceCache<>(MAX_COURSES, COURSE_TTL_MILLIS);
+        this.sections = new ReferenceCache<>(MAX_SECTIONS, SECTION_TTL_MILLIS);
+        this.identities = new ReferenceCache<>(MAX_IDENTITIES, IDENTITY_TTL_MILLIS);
+    }
+
+    public static synchronized ReferenceDataCache getInstance() {
+        if (instance == null) {
+            instance = new ReferenceDataCache();
+        }
+        return instance;
+    }
+
+    public ReferenceCache<String, Optional<Course>> courses() {
+        return courses;
+    }
+
+    public ReferenceCache<Integer, Optional<Section>> sections() {
+        return sections;
+    }
+
+    public ReferenceCache<Integer, Identity> identities() {
+        return identities;
+    }
+
+    public void invalidateCourse(String courseCode) {
+        courses.invalidate(courseCode);
+        UnitOfWork.afterCompletion(() -> courses.invalidate(courseCode));
+    }
+
+    public void invalidateSection(int sectionId) {
+        sections.invalidate(sectionId);
+        UnitOfWork.afterCompletion(() -> sections.invalidate(sectionId));
+    }
+
+    public void invalidateIdentity(int userId) {
+        identities.invalidate(userId);
+        UnitOfWork.afterCompletion(() -> identities.invalidate(userId));
+    }
+
+    public void clear() {
+        courses.clear();
+        sections.clear();
+        identities.clear();
+    }
+}
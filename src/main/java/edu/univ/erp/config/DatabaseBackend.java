@@ -0,0 +1,94 @@
+package edu.univ.erp.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Database engines DatabaseManager can run against, selected with db.backend.
+ * <p>
+ * H2 runs in-process in MariaDB compatibility mode. AuthDB and ERPDB become two
+ * schemas of one named in-memory database, so cross-database references such
+ * as AuthDB.users_auth resolve the same way they do on a MariaDB server. The H2
+ * jar is a test dependency; the embedded backend exists for hermetic tests and
+ * benchmarks, not for running the desktop client.
+ */
+public enum DatabaseBackend {
+    MARIADB("org.mariadb.jdbc.Driver") {
+        @Override
+        String jdbcUrl(DatabaseConfig config, String host, String port, String dbName) {
+            return String.format("jdbc:mariadb://%s:%s/%s", host, port, dbName);
+        }
+
+        @Override
+        void selectDatabase(Connection conn, String dbName) throws SQLException {
+            conn.setCatalog(dbName);
+        }
+    },
+    H2("org.h2.Driver") {
+        @Override
+        String jdbcUrl(DatabaseConfig config, String host, String port, String dbName) {
+            return "jdbc:h2:mem:" + config.get("embedded.name")
+                    + ";MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,VALUE"
+                    + ";INIT=CREATE SCHEMA IF NOT EXISTS " + schema(dbName)
+                    + "\\;SET SCHEMA " + schema(dbName);
+        }
+
+        @Override
+        void selectDatabase(Connection conn, String dbName) throws SQLException {
+            conn.setSchema(schema(dbName));
+        }
+
+        @Override
+        boolean supportsDriverOptions() {
+            // H2 rejects connection settings it does not know, and the driver.* keys are MariaDB's
+            return false;
+        }
+
+        @Override
+        boolean supportsReplica() {
+            return false;
+        }
+    };
+
+    private final String driverClassName;
+
+    DatabaseBackend(String driverClassName) {
+        this.driverClassName = driverClassName;
+    }
+
+    public static DatabaseBackend fromConfig(DatabaseConfig config) {
+        String name = config.get("db.backend");
+        if (name == null || name.isBlank()) {
+            return MARIADB;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Unknown db.backend '" + name + "'; expected mariadb or h2");
+        }
+    }
+
+    private static String schema(String dbName) {
+        return dbName.toLowerCase(Locale.ROOT);
+    }
+
+    String getDriverClassName() {
+        return driverClassName;
+    }
+
+    abstract String jdbcUrl(DatabaseConfig config, String host, String port, String dbName);
+
+    /**
+     * Points conn's unqualified table names at dbName.
+     */
+    abstract void selectDatabase(Connection conn, String dbName) throws SQLException;
+
+    boolean supportsDriverOptions() {
+        return true;
+    }
+
+    boolean supportsReplica() {
+        return true;
+    }
+}
@@ -0,0 +1,159 @@
+package edu.univ.erp.config;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Connection settings for DatabaseManager. Values are layered, later sources
+ * overriding earlier ones:
+ * <ol>
+ * <li>built-in defaults</li>
+ * <li>database.properties on the classpath</li>
+ * <li>the file named by the SIS_DB_CONFIG environment variable</li>
+ * <li>environment variables named SIS_ plus the key upper-cased with dots as
+ * underscores, e.g. SIS_DB_HOST or SIS_ERP_POOL_MAXIMUMPOOLSIZE</li>
+ * </ol>
+ * Pool settings are read as "auth.pool.X" / "erp.pool.X" / "replica.pool.X" with
+ * "pool.X" as the shared fallback; "driver.X" keys are passed to the MariaDB
+ * driver as-is. Setting replica.host enables a read replica for ERPDB.
+ */
+public class DatabaseConfig {
+    private static final String RESOURCE = "/database.properties";
+    private static final String CONFIG_FILE_ENV = "SIS_DB_CONFIG";
+    private static final String ENV_PREFIX = "SIS_";
+    private static final String DRIVER_PREFIX = "driver.";
+
+    private final Properties properties;
+
+    DatabaseConfig(Properties properties) {
+        this.properties = properties;
+    }
+
+    public static DatabaseConfig load() {
+        return load(System.getenv());
+    }
+
+    static DatabaseConfig load(Map<String, String> env) {
+        Properties props = defaults();
+        try (InputStream in = DatabaseConfig.class.getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                props.load(in);
+            }
+        } catch (IOException e) {
+            System.err.println("[WARN] Could not read " + RESOURCE + ": " + e.getMessage());
+        }
+
+        String configFile = env.get(CONFIG_FILE_ENV);
+        if (configFile != null && !configFile.isBlank()) {
+            try (InputStream in = new FileInputStream(configFile)) {
+                props.load(in);
+            } catch (IOException e) {
+                System.err.println("[WARN] Could not read database config " + configFile + ": " + e.getMessage());
+            }
+        }
+
+        applyEnvironment(props, env);
+        return new DatabaseConfig(props);
+    }
+
+    private static Properties defaults() {
+        Properties props = new Properties();
+        props.setProperty("db.backend", "mariadb");
+        props.setProperty("embedded.name", "sis");
+        props.setProperty("db.host", "127.0.0.1");
+        props.setProperty("db.port", "3306");
+        props.setProperty("db.user", "root");
+        props.setProperty("db.password", "yeahboi123");
+        props.setProperty("pool.maximumPoolSize", "10");
+        props.setProperty("pool.minimumIdle", "2");
+        props.setProperty("pool.connectionTimeout", "30000");
+        props.setProperty("pool.idleTimeout", "600000");
+        props.setProperty("pool.maxLifetime", "1800000");
+        props.setProperty("metrics.logIntervalSeconds", "60");
+        // Read replica for ERPDB; a blank host means reads use the primary pool
+        props.setProperty("replica.host", "");
+        props.setProperty("replica.port", "");
+        props.setProperty("replica.database", "");
+        props.setProperty("replica.user", "");
+        props.setProperty("replica.password", "");
+        props.setProperty("replica.readYourWritesMillis", "2000");
+        props.setProperty("settings.maintenanceRefreshMillis", "5000");
+        return props;
+    }
+
+    private static void applyEnvironment(Properties props, Map<String, String> env) {
+        // Pool keys may be set per database even when only the shared key is present
+        for (String key : props.stringPropertyNames().toArray(new String[0])) {
+            if (key.startsWith("pool.")) {
+                overrideFromEnv(props, env, "auth." + key);
+                overrideFromEnv(props, env, "erp." + key);
+                overrideFromEnv(props, env, "replica." + key);
+            }
+            overrideFromEnv(props, env, key);
+        }
+    }
+
+    private static void overrideFromEnv(Properties props, Map<String, String> env, String key) {
+        String value = env.get(envName(key));
+        if (value != null && !value.isBlank()) {
+            props.setProperty(key, value.trim());
+        }
+    }
+
+    static String envName(String key) {
+        return ENV_PREFIX + key.toUpperCase(Locale.ROOT).replace('.', '_');
+    }
+
+    public String get(String key) {
+        return properties.getProperty(key);
+    }
+
+    /**
+     * Returns the value for key, or the value of fallbackKey when key is unset or blank.
+     */
+    public String get(String key, String fallbackKey) {
+        String value = properties.getProperty(key);
+        return value == null || value.isBlank() ? properties.getProperty(fallbackKey) : value;
+    }
+
+    public boolean isReplicaConfigured() {
+        String host = properties.getProperty("replica.host");
+        return host != null && !host.isBlank();
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("[WARN] Ignoring non-numeric value for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Returns a pool setting for one pool ("auth", "erp" or "replica"), falling back to
+     * the shared pool.X value.
+     */
+    public String getPoolSetting(String database, String name) {
+        String value = properties.getProperty(database + ".pool." + name);
+        return value != null ? value : properties.getProperty("pool." + name);
+    }
+
+    public Properties getDriverOptions() {
+        Properties options = new Properties();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(DRIVER_PREFIX)) {
+                options.setProperty(key.substring(DRIVER_PREFIX.length()), properties.getProperty(key));
+            }
+        }
+        return options;
+    }
+}
@@ -5,30 +5,84 @@ import com.zaxxer.hikari.HikariDataSource;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * DatabaseManager maintains separate connection pools for AuthDB and ERPDB.
+ * Pool sizing, timeouts and driver options come from {@link DatabaseConfig}.
+ * <p>
+ * When a replica is configured, {@link #getErpReadConnection()} hands out
+ * replica connections for read-only queries. Every primary ERPDB checkout is
+ * treated as a write by the calling thread (the EDT for the desktop client),
+ * and that thread's reads stay on the primary for replica.readYourWritesMillis
+ * afterwards so it never reads behind its own changes.
+ * <p>
+ * While a {@link UnitOfWork} is open on the calling thread, every getter
+ * returns the unit's single connection instead of checking out a new one.
  */
 public class DatabaseManager {
-    private static final String DEFAULT_HOST = "127.0.0.1";
-    private static final String DEFAULT_PORT = "3306";
     private static final String AUTH_DB_NAME = "AuthDB";
     private static final String ERP_DB_NAME = "ERPDB";
+    private static final String[] POOL_SETTINGS = {
+            "maximumPoolSize", "minimumIdle", "connectionTimeout", "idleTimeout", "maxLifetime"
+    };
 
     private static DatabaseManager instance;
 
+    private final DatabaseBackend backend;
     private final HikariDataSource authDataSource;
     private final HikariDataSource erpDataSource;
+    private final HikariDataSource erpReplicaDataSource; // null when no replica is configured
+    private final PoolMetrics authMetrics;
+    private final PoolMetrics erpMetrics;
+    private final PoolMetrics erpReplicaMetrics;
+    private final ScheduledExecutorService metricsLogger;
+
+    // Number of connections handed out per pool; used to measure round trips per operation
+    private final AtomicLong authCheckouts = new AtomicLong();
+    private final AtomicLong erpCheckouts = new AtomicLong();
+    private final AtomicLong erpReplicaCheckouts = new AtomicLong();
+
+    private final long readYourWritesNanos;
+    private final ThreadLocal<Long> lastErpWriteNanos = new ThreadLocal<>();
 
     private DatabaseManager() {
-        String user = System.getenv().getOrDefault("SIS_DB_USER", "root");
-        String password = System.getenv().getOrDefault("SIS_DB_PASSWORD", "yeahboi123");
-        String host = System.getenv().getOrDefault("SIS_DB_HOST", DEFAULT_HOST);
-        String port = System.getenv().getOrDefault("SIS_DB_PORT", DEFAULT_PORT);
+        this(DatabaseConfig.load());
+    }
+
+    DatabaseManager(DatabaseConfig config) {
+        this.backend = DatabaseBackend.fromConfig(config);
+        String host = config.get("db.host");
+        String port = config.get("db.port");
+        String user = config.get("db.user");
+        String password = config.get("db.password");
 
-        this.authDataSource = createDataSource(host, port, AUTH_DB_NAME, user, password);
-        this.erpDataSource = createDataSource(host, port, ERP_DB_NAME, user, password);
+        this.authMetrics = new PoolMetrics(poolName(AUTH_DB_NAME));
+        this.erpMetrics = new PoolMetrics(poolName(ERP_DB_NAME));
+        this.authDataSource = createDataSource(config, "auth", host, port, AUTH_DB_NAME, user, password, authMetrics);
+        this.erpDataSource = createDataSource(config, "erp", host, port, ERP_DB_NAME, user, password, erpMetrics);
+
+        if (config.isReplicaConfigured() && !backend.supportsReplica()) {
+            System.err.println("[WARN] Ignoring replica settings: the " + backend + " backend has no replica");
+        }
+        if (config.isReplicaConfigured() && backend.supportsReplica()) {
+            String replicaDb = config.get("replica.database");
+            replicaDb = replicaDb == null || replicaDb.isBlank() ? ERP_DB_NAME : replicaDb;
+            this.erpReplicaMetrics = new PoolMetrics("SIS-" + ERP_DB_NAME + "-Replica-Pool");
+            this.erpReplicaDataSource = createDataSource(config, "replica", config.get("replica.host"),
+                    config.get("replica.port", "db.port"), replicaDb, config.get("replica.user", "db.user"),
+                    config.get("replica.password", "db.password"), erpReplicaMetrics);
+        } else {
+            this.erpReplicaMetrics = null;
+            this.erpReplicaDataSource = null;
+        }
+        this.readYourWritesNanos = TimeUnit.MILLISECONDS.toNanos(config.getInt("replica.readYourWritesMillis", 2000));
+        this.metricsLogger = startMetricsLogger(config.getInt("metrics.logIntervalSeconds", 0));
     }
 
     public static synchronized DatabaseManager getInstance() {
@@ -38,44 +92,191 @@ public class DatabaseManager {
         return instance;
     }
 
-    private HikariDataSource createDataSource(String host, String port, String dbName, String user, String password) {
+    private static String poolName(String dbName) {
+        return "SIS-" + dbName + "-Pool";
+    }
+
+    private HikariDataSource createDataSource(DatabaseConfig config, String pool, String host, String port,
+            String dbName, String user, String password, PoolMetrics metrics) {
         Properties props = new Properties();
-        props.setProperty("jdbcUrl", String.format("jdbc:mariadb://%s:%s/%s", host, port, dbName));
+        props.setProperty("jdbcUrl", backend.jdbcUrl(config, host, port, dbName));
         props.setProperty("username", user);
         props.setProperty("password", password);
-        props.setProperty("driverClassName", "org.mariadb.jdbc.Driver");
-
-        props.setProperty("maximumPoolSize", "10");
-        props.setProperty("minimumIdle", "2");
-        props.setProperty("connectionTimeout", "30000");
-        props.setProperty("idleTimeout", "600000");
-        props.setProperty("maxLifetime", "1800000");
+        props.setProperty("driverClassName", backend.getDriverClassName());
         props.setProperty("autoCommit", "true");
-        props.setProperty("poolName", "SIS-" + dbName + "-Pool");
-        // Ensure transaction durability
-        props.setProperty("dataSource.useServerPrepStmts", "true");
-        props.setProperty("dataSource.cachePrepStmts", "true");
-        props.setProperty("dataSource.prepStmtCacheSize", "250");
-        props.setProperty("dataSource.prepStmtCacheSqlLimit", "2048");
+        props.setProperty("poolName", metrics.getPoolName());
+        if ("replica".equals(pool)) {
+            props.setProperty("readOnly", "true");
+        }
+
+        for (String setting : POOL_SETTINGS) {
+            String value = config.getPoolSetting(pool, setting);
+            if (value != null) {
+                props.setProperty(setting, value);
+            }
+        }
+        if (backend.supportsDriverOptions()) {
+            config.getDriverOptions().forEach((key, value) -> props.setProperty("dataSource." + key, (String) value));
+        }
+
+        HikariConfig hikariConfig = new HikariConfig(props);
+        hikariConfig.setMetricsTrackerFactory((poolName, poolStats) -> metrics);
+        HikariDataSource dataSource = new HikariDataSource(hikariConfig);
+        metrics.attach(dataSource.getHikariPoolMXBean());
+        return dataSource;
+    }
 
-        HikariConfig config = new HikariConfig(props);
-        return new HikariDataSource(config);
+    private ScheduledExecutorService startMetricsLogger(int intervalSeconds) {
+        if (intervalSeconds <= 0) {
+            return null;
+        }
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sis-pool-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::logPoolMetrics, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        return scheduler;
     }
 
     public Connection getAuthConnection() throws SQLException {
+        UnitOfWork unit = UnitOfWork.current();
+        if (unit != null) {
+            return unit.join(AUTH_DB_NAME, this);
+        }
+        return checkoutAuth();
+    }
+
+    private Connection checkoutAuth() throws SQLException {
+        authCheckouts.incrementAndGet();
         return authDataSource.getConnection();
     }
 
     public Connection getErpConnection() throws SQLException {
+        if (erpReplicaDataSource != null) {
+            lastErpWriteNanos.set(System.nanoTime());
+        }
+        UnitOfWork unit = UnitOfWork.current();
+        if (unit != null) {
+            return unit.join(ERP_DB_NAME, this);
+        }
+        return checkoutErp();
+    }
+
+    /**
+     * Returns a primary ERPDB connection for a read that must not see replica
+     * lag, such as a cache loader. Unlike {@link #getErpConnection()} it is not
+     * counted as a write, so it does not keep this thread's later reads off the
+     * replica.
+     */
+    public Connection getErpPrimaryReadConnection() throws SQLException {
+        UnitOfWork unit = UnitOfWork.current();
+        if (unit != null) {
+            return unit.join(ERP_DB_NAME, this);
+        }
+        return checkoutErp();
+    }
+
+    private Connection checkoutErp() throws SQLException {
+        erpCheckouts.incrementAndGet();
         return erpDataSource.getConnection();
     }
 
+    /**
+     * Checks out the connection a UnitOfWork uses for both databases.
+     */
+    Connection checkoutUnitConnection() throws SQLException {
+        return checkoutErp();
+    }
+
+    String getHomeDatabase() {
+        return ERP_DB_NAME;
+    }
+
+    void selectDatabase(Connection conn, String dbName) throws SQLException {
+        backend.selectDatabase(conn, dbName);
+    }
+
+    public DatabaseBackend getBackend() {
+        return backend;
+    }
+
+    /**
+     * Returns a connection for read-only ERPDB queries: the replica when one is
+     * configured and this thread has not written recently, otherwise the primary.
+     * Inside a {@link UnitOfWork} reads share the unit's primary connection.
+     * Loaders for process-wide caches must use
+     * {@link #getErpPrimaryReadConnection()} instead: a lagging replica row
+     * cached right after an invalidation would be served for the cache's whole
+     * TTL.
+     */
+    public Connection getErpReadConnection() throws SQLException {
+        UnitOfWork unit = UnitOfWork.current();
+        if (unit != null) {
+            return unit.join(ERP_DB_NAME, this);
+        }
+        if (erpReplicaDataSource == null || hasRecentErpWrite()) {
+            return checkoutErp();
+        }
+        erpCheckouts.incrementAndGet();
+        erpReplicaCheckouts.incrementAndGet();
+        return erpReplicaDataSource.getConnection();
+    }
+
+    private boolean hasRecentErpWrite() {
+        Long lastWrite = lastErpWriteNanos.get();
+        return lastWrite != null && System.nanoTime() - lastWrite < readYourWritesNanos;
+    }
+
+    public boolean isReplicaConfigured() {
+        return erpReplicaDataSource != null;
+    }
+
+    public long getAuthCheckoutCount() {
+        return authCheckouts.get();
+    }
+
+    /**
+     * Counts every ERPDB checkout, whether it was served by the primary or the replica.
+     */
+    public long getErpCheckoutCount() {
+        return erpCheckouts.get();
+    }
+
+    public long getErpReplicaCheckoutCount() {
+        return erpReplicaCheckouts.get();
+    }
+
+    public PoolMetrics.Snapshot getAuthPoolMetrics() {
+        return authMetrics.snapshot();
+    }
+
+    public PoolMetrics.Snapshot getErpPoolMetrics() {
+        return erpMetrics.snapshot();
+    }
+
+    public Optional<PoolMetrics.Snapshot> getErpReplicaPoolMetrics() {
+        return erpReplicaMetrics == null ? Optional.empty() : Optional.of(erpReplicaMetrics.snapshot());
+    }
+
+    public void logPoolMetrics() {
+        System.out.println(getAuthPoolMetrics().toLogLine());
+        System.out.println(getErpPoolMetrics().toLogLine());
+        getErpReplicaPoolMetrics().ifPresent(snapshot -> System.out.println(snapshot.toLogLine()));
+    }
+
     public void close() {
+        if (metricsLogger != null) {
+            metricsLogger.shutdownNow();
+        }
         if (authDataSource != null && !authDataSource.isClosed()) {
             authDataSource.close();
         }
         if (erpDataSource != null && !erpDataSource.isClosed()) {
             erpDataSource.close();
         }
+        if (erpReplicaDataSource != null && !erpReplicaDataSource.isClosed()) {
+            erpReplicaDataSource.close();
+        }
     }
 }
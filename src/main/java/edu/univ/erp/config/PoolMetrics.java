@@ -0,0 +1,63 @@
+package edu.univ.erp.config;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import edu.univ.erp.util.LatencyHistogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics for one Hikari pool. Hikari reports acquire latency and timeouts
+ * through the IMetricsTracker callbacks; active/idle/pending counts are read
+ * live from the pool's MXBean when a snapshot is taken.
+ */
+public class PoolMetrics implements IMetricsTracker {
+    private final String poolName;
+    private final LatencyHistogram acquireLatency = new LatencyHistogram();
+    private final AtomicLong timeouts = new AtomicLong();
+    private volatile HikariPoolMXBean pool;
+
+    PoolMetrics(String poolName) {
+        this.poolName = poolName;
+    }
+
+    void attach(HikariPoolMXBean pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquireLatency.recordNanos(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.incrementAndGet();
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public Snapshot snapshot() {
+        HikariPoolMXBean mxBean = pool;
+        int active = mxBean != null ? mxBean.getActiveConnections() : 0;
+        int idle = mxBean != null ? mxBean.getIdleConnections() : 0;
+        int pending = mxBean != null ? mxBean.getThreadsAwaitingConnection() : 0;
+        int total = mxBean != null ? mxBean.getTotalConnections() : 0;
+        return new Snapshot(poolName, active, idle, pending, total, timeouts.get(), acquireLatency.snapshot());
+    }
+
+    public record Snapshot(String poolName, int active, int idle, int pending, int total, long timeouts,
+            LatencyHistogram.Snapshot acquireLatency) {
+
+        public String toLogLine() {
+            return String.format("[POOL] %s active=%d idle=%d pending=%d total=%d timeouts=%d "
+                    + "acquire(n=%d mean=%.0fus p50=%dus p99=%dus max=%dus)",
+                    poolName, active, idle, pending, total, timeouts,
+                    acquireLatency.count(), acquireLatency.meanMicros(),
+                    acquireLatency.percentileMicros(50), acquireLatency.percentileMicros(99),
+                    acquireLatency.maxMicros());
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package edu.univ.erp.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scoped connection holder for one service operation. While a unit is open on
+ * the current thread, DatabaseManager hands every DAO the unit's connection
+ * instead of checking out a new one, so the whole operation costs a single
+ * pool checkout and commits or rolls back as one transaction.
+ *
+ * <pre>
+ * try (UnitOfWork uow = UnitOfWork.begin()) {
+ *     ...DAO calls...
+ *     uow.commit();
+ * }
+ * </pre>
+ *
+ * AuthDB and ERPDB live on the same server, and ERPDB rows reference
+ * AuthDB.users_auth by foreign key, so a unit uses one physical connection for
+ * both and switches its default database when a DAO for the other database
+ * creates a statement. A second connection could not even see, let alone
+ * reference, a user the unit has just inserted.
+ *
+ * Closing a unit that was not committed rolls it back. Opening a unit while
+ * one is already active joins the outer unit; only the outermost commit is
+ * real. DAOs that manage their own transaction keep working unchanged: inside
+ * a unit, setAutoCommit(false) sets a savepoint, rollback() returns to it, and
+ * commit() and close() leave the outer transaction open. A rollback whose
+ * savepoint the server has already discarded marks the unit rollback-only.
+ */
+public final class UnitOfWork implements AutoCloseable {
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private final UnitOfWork outer;
+    private DatabaseManager manager;
+    private Connection connection;
+    private String homeDatabase;
+    private String currentDatabase;
+    private final List<Runnable> completionActions = new ArrayList<>();
+    private boolean rollbackOnly;
+    private boolean committed;
+    private boolean closed;
+
+    private UnitOfWork(UnitOfWork outer) {
+        this.outer = outer;
+    }
+
+    public static UnitOfWork begin() {
+        UnitOfWork outer = CURRENT.get();
+        UnitOfWork unit = new UnitOfWork(outer);
+        if (outer == null) {
+            CURRENT.set(unit);
+        }
+        return unit;
+    }
+
+    static UnitOfWork current() {
+        return CURRENT.get();
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Runs action once the active unit finishes, whether it commits or rolls
+     * back, or immediately when no unit is active. Caches use this so that
+     * values loaded from uncommitted rows inside a unit are dropped again.
+     */
+    public static void afterCompletion(Runnable action) {
+        UnitOfWork unit = CURRENT.get();
+        if (unit == null) {
+            action.run();
+        } else {
+            unit.completionActions.add(action);
+        }
+    }
+
+    public void commit() throws SQLException {
+        if (outer != null) {
+            committed = true;
+            return;
+        }
+        if (rollbackOnly) {
+            throw new SQLException("Unit of work was marked rollback-only by a nested operation");
+        }
+        try {
+            if (connection != null) {
+                connection.commit();
+            }
+            committed = true;
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (outer != null) {
+            if (!committed) {
+                outer.rollbackOnly = true;
+            }
+            return;
+        }
+        if (closed) {
+            return;
+        }
+        closed = true;
+        CURRENT.remove();
+        SQLException failure = null;
+        if (connection != null) {
+            try {
+                if (!committed) {
+                    connection.rollback();
+                }
+                connection.setAutoCommit(true);
+                if (!homeDatabase.equals(currentDatabase)) {
+                    manager.selectDatabase(connection, homeDatabase);
+                }
+            } catch (SQLException e) {
+                failure = e;
+            } finally {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    failure = failure == null ? e : failure;
+                }
+            }
+        }
+        completionActions.forEach(Runnable::run);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Returns a view of the unit's connection whose statements run against the
+     * given database, checking the connection out on first use.
+     */
+    Connection join(String database, DatabaseManager manager) throws SQLException {
+        if (connection == null) {
+            this.manager = manager;
+            connection = manager.checkoutUnitConnection();
+            connection.setAutoCommit(false);
+            homeDatabase = manager.getHomeDatabase();
+            currentDatabase = homeDatabase;
+        }
+        return participant(database);
+    }
+
+    /**
+     * Wraps the unit's connection for one DAO call. Transaction control on the
+     * wrapper is mapped onto a savepoint so a DAO's own rollback only undoes its
+     * own statements.
+     */
+    private Connection participant(String database) {
+        Connection target = connection;
+        Savepoint[] savepoint = new Savepoint[1];
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                        case "setTransactionIsolation":
+                            return null;
+                        case "isClosed":
+                            return target.isClosed();
+                        case "getAutoCommit":
+                            return false;
+                        case "createStatement":
+                        case "prepareStatement":
+                        case "prepareCall":
+                            if (!database.equals(currentDatabase)) {
+                                manager.selectDatabase(target, database);
+                                currentDatabase = database;
+                            }
+                            break;
+                        case "setAutoCommit":
+                            if (!(Boolean) args[0] && savepoint[0] == null) {
+                                savepoint[0] = target.setSavepoint();
+                            } else if ((Boolean) args[0]) {
+                                savepoint[0] = null;
+                            }
+                            return null;
+                        case "commit":
+                            savepoint[0] = null;
+                            return null;
+                        case "rollback":
+                            if (args == null || args.length == 0) {
+                                if (savepoint[0] != null) {
+                                    try {
+                                        target.rollback(savepoint[0]);
+                                        return null;
+                                    } catch (SQLException e) {
+                                        // The server already rolled back the whole transaction, e.g.
+                                        // a deadlock victim, and discarded the savepoint with it
+                                        savepoint[0] = null;
+                                    }
+                                }
+                                rollbackOnly = true;
+                                return null;
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -2,6 +2,7 @@ package edu.univ.erp.dao;
 
 import edu.univ.erp.config.DatabaseManager;
 import edu.univ.erp.model.Attendance;
+import edu.univ.erp.model.view.AttendanceSummary;
 
 import java.sql.*;
 import java.time.LocalDate;
@@ -9,6 +10,30 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class AttendanceDao {
+    private static final String SELECT_BY_STUDENT = "SELECT a.attendance_id, a.enrollment_id, a.date, a.status "
+            + "FROM attendance a "
+            + "INNER JOIN enrollments e ON e.enrollment_id = a.enrollment_id "
+            + "WHERE e.student_id = ?%s "
+            + "ORDER BY a.enrollment_id, a.date DESC";
+    private static final String SELECT_BY_SECTION_AND_DATE = "SELECT a.attendance_id, a.enrollment_id, a.date, a.status "
+            + "FROM attendance a "
+            + "INNER JOIN enrollments e ON e.enrollment_id = a.enrollment_id "
+            + "WHERE e.section_id = ? AND a.date = ?";
+    // Selecting through enrollments skips any row whose enrollment is not in the given section
+    private static final String UPSERT_FOR_SECTION = "INSERT INTO attendance (enrollment_id, date, status) "
+            + "SELECT e.enrollment_id, ?, ? FROM enrollments e WHERE e.enrollment_id = ? AND e.section_id = ? "
+            + "ON DUPLICATE KEY UPDATE status = VALUES(status)";
+    // Date bounds sit in the join condition so enrollments without attendance still report zero counts
+    private static final String SUMMARIZE_BY_STUDENT = "SELECT e.enrollment_id, e.section_id, "
+            + "COALESCE(SUM(CASE WHEN a.status = 'PRESENT' THEN 1 ELSE 0 END), 0) AS present_count, "
+            + "COALESCE(SUM(CASE WHEN a.status = 'ABSENT' THEN 1 ELSE 0 END), 0) AS absent_count, "
+            + "COALESCE(SUM(CASE WHEN a.status = 'LATE' THEN 1 ELSE 0 END), 0) AS late_count, "
+            + "COUNT(a.attendance_id) AS total_count "
+            + "FROM enrollments e "
+            + "LEFT JOIN attendance a ON a.enrollment_id = e.enrollment_id%s "
+            + "WHERE e.student_id = ? "
+            + "GROUP BY e.enrollment_id, e.section_id "
+            + "ORDER BY e.enrollment_id";
 
     public void saveAttendance(Attendance attendance) throws SQLException {
         // Upsert: Insert or Update if exists for same enrollment and date
@@ -36,7 +61,7 @@ public class AttendanceDao {
     public List<Attendance> getAttendanceByEnrollment(int enrollmentId) throws SQLException {
         List<Attendance> list = new ArrayList<>();
         String sql = "SELECT * FROM attendance WHERE enrollment_id = ? ORDER BY date DESC";
-        try (Connection conn = DatabaseManager.getInstance().getErpConnection();
+        try (Connection conn = DatabaseManager.getInstance().getErpReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, enrollmentId);
             try (ResultSet rs = stmt.executeQuery()) {
@@ -48,9 +73,104 @@ public class AttendanceDao {
         return list;
     }
 
+    /**
+     * Upserts a whole roster's attendance for one date as a single batch in one
+     * transaction. Entries for enrollments outside sectionId are ignored.
+     */
+    public void saveSectionAttendance(int sectionId, LocalDate date, List<Attendance> roster) throws SQLException {
+        if (roster.isEmpty()) {
+            return;
+        }
+        try (Connection conn = DatabaseManager.getInstance().getErpConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(UPSERT_FOR_SECTION)) {
+                for (Attendance attendance : roster) {
+                    stmt.setDate(1, Date.valueOf(date));
+                    stmt.setString(2, attendance.getStatus());
+                    stmt.setInt(3, attendance.getEnrollmentId());
+                    stmt.setInt(4, sectionId);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Loads every recorded attendance mark for a section on one date.
+     * Enrollments with nothing recorded are absent from the result.
+     */
+    public List<Attendance> getAttendanceBySectionAndDate(int sectionId, LocalDate date) throws SQLException {
+        List<Attendance> list = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getInstance().getErpReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(SELECT_BY_SECTION_AND_DATE)) {
+            stmt.setInt(1, sectionId);
+            stmt.setDate(2, Date.valueOf(date));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapResultSetToAttendance(rs));
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Loads a student's attendance across all their enrollments in one query.
+     * Either bound may be null to leave that end of the date range open.
+     */
+    public List<Attendance> getAttendanceByStudent(int studentId, LocalDate from, LocalDate to) throws SQLException {
+        List<Attendance> list = new ArrayList<>();
+        String sql = String.format(SELECT_BY_STUDENT, dateRangeCondition(from, to));
+        try (Connection conn = DatabaseManager.getInstance().getErpReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, studentId);
+            bindDateRange(stmt, 2, from, to);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapResultSetToAttendance(rs));
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Counts present, absent and late marks per enrollment for a student in SQL,
+     * without materializing the individual attendance rows.
+     */
+    public List<AttendanceSummary> summarizeByStudent(int studentId, LocalDate from, LocalDate to)
+            throws SQLException {
+        List<AttendanceSummary> list = new ArrayList<>();
+        String sql = String.format(SUMMARIZE_BY_STUDENT, dateRangeCondition(from, to));
+        try (Connection conn = DatabaseManager.getInstance().getErpReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = bindDateRange(stmt, 1, from, to);
+            stmt.setInt(index, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(new AttendanceSummary(
+                            rs.getInt("enrollment_id"),
+                            rs.getInt("section_id"),
+                            rs.getInt("present_count"),
+                            rs.getInt("absent_count"),
+                            rs.getInt("late_count"),
+                            rs.getInt("total_count")));
+                }
+            }
+        }
+        return list;
+    }
+
     public Attendance getAttendanceByEnrollmentAndDate(int enrollmentId, LocalDate date) throws SQLException {
         String sql = "SELECT * FROM attendance WHERE enrollment_id = ? AND date = ?";
-        try (Connection conn = DatabaseManager.getInstance().getErpConnection();
+        try (Connection conn = DatabaseManager.getInstance().getErpReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, enrollmentId);
             stmt.setDate(2, Date.valueOf(date));
@@ -63,6 +183,20 @@ public class AttendanceDao {
         return null;
     }
 
+    private String dateRangeCondition(LocalDate from, LocalDate to) {
+        return (from != null ? " AND a.date >= ?" : "") + (to != null ? " AND a.date <= ?" : "");
+    }
+
+    private int bindDateRange(PreparedStatement stmt, int index, LocalDate from, LocalDate to) throws SQLException {
+        if (from != null) {
+            stmt.setDate(index++, Date.valueOf(from));
+        }
+        if (to != null) {
+            stmt.setDate(index++, Date.valueOf(to));
+        }
+        return index;
+    }
+
     private Attendance mapResultSetToAttendance(ResultSet rs) throws SQLException {
         return new Attendance(
                 rs.getInt("attendance_id"),
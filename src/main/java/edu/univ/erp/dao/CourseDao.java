@@ -1,5 +1,6 @@
 package edu.univ.erp.dao;
 
+import edu.univ.erp.cache.ReferenceDataCache;
 import edu.univ.erp.config.DatabaseManager;
 import edu.univ.erp.model.Course;
 import edu.univ.erp.model.Section;
@@ -19,14 +20,16 @@ public class CourseDao {
     private static final String INSERT_COURSE = "INSERT INTO courses (code, title, credits) VALUES (?, ?, ?)";
 
     private final DatabaseManager databaseManager;
+    private final ReferenceDataCache cache;
 
     public CourseDao() {
         this.databaseManager = DatabaseManager.getInstance();
+        this.cache = ReferenceDataCache.getInstance();
     }
 
     public List<Course> findAllCourses() throws SQLException {
         List<Course> courses = new ArrayList<>();
-        try (Connection conn = databaseManager.getErpConnection();
+        try (Connection conn = databaseManager.getErpReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(SELECT_ALL_COURSES);
                 ResultSet rs = stmt.executeQuery()) {
 
@@ -42,7 +45,12 @@ public class CourseDao {
     }
 
     public Optional<Course> findByCode(String courseCode) throws SQLException {
-        try (Connection conn = databaseManager.getErpConnection();
+        return cache.courses().get(courseCode, this::loadByCode);
+    }
+
+    private Optional<Course> loadByCode(String courseCode) throws SQLException {
+        // Cached for the TTL, so read the primary rather than a possibly lagging replica
+        try (Connection conn = databaseManager.getErpPrimaryReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(SELECT_COURSE_BY_CODE)) {
 
             stmt.setString(1, courseCode);
@@ -66,12 +74,14 @@ public class CourseDao {
             stmt.setString(2, course.getTitle());
             stmt.setInt(3, course.getCredits());
             stmt.executeUpdate();
+        } finally {
+            cache.invalidateCourse(course.getCode());
         }
     }
 
     public List<Section> findSectionsForCourse(String courseCode) throws SQLException {
         List<Section> sections = new ArrayList<>();
-        try (Connection conn = databaseManager.getErpConnection();
+        try (Connection conn = databaseManager.getErpReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(SELECT_SECTIONS_FOR_COURSE)) {
 
             stmt.setString(1, courseCode);
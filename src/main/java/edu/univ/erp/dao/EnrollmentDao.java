@@ -1,9 +1,13 @@
 package edu.univ.erp.dao;
 
+import edu.univ.erp.cache.ReferenceDataCache;
 import edu.univ.erp.config.DatabaseManager;
+import edu.univ.erp.config.UnitOfWork;
 import edu.univ.erp.model.Enrollment;
+import edu.univ.erp.model.view.EnrollmentView;
 
 import java.sql.Connection;
+import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -20,6 +24,31 @@ public class EnrollmentDao {
     private static final String UPDATE_STATUS = "UPDATE enrollments SET status = ? WHERE enrollment_id = ?";
     private static final String SELECT_FOR_SECTION = "SELECT enrollment_id, student_id, section_id, status FROM enrollments WHERE section_id = ?";
     private static final String SELECT_BY_ID = "SELECT enrollment_id, student_id, section_id, status FROM enrollments WHERE enrollment_id = ?";
+    private static final String SELECT_BY_ID_FOR_UPDATE = SELECT_BY_ID + " FOR UPDATE";
+    private static final String REACTIVATE_ENROLLMENT = "UPDATE enrollments SET status = 'ENROLLED' WHERE student_id = ? AND section_id = ? AND status <> 'ENROLLED'";
+    private static final String SELECT_REGISTRATIONS_FOR_STUDENT = "SELECT e.enrollment_id, e.section_id, e.status, "
+            + "s.day_time, s.room, s.instructor_id, s.drop_deadline, s.semester, s.year, c.code, c.title "
+            + "FROM enrollments e "
+            + "INNER JOIN sections s ON s.section_id = e.section_id "
+            + "INNER JOIN courses c ON c.code = s.course_id "
+            + "WHERE e.student_id = ? "
+            + "ORDER BY e.enrollment_id";
+    private static final String RESERVE_SEAT = "UPDATE sections SET seats_taken = seats_taken + 1 WHERE section_id = ? AND seats_taken < capacity";
+    private static final String ADJUST_SEATS = "UPDATE sections SET seats_taken = GREATEST(seats_taken + ?, 0) WHERE section_id = ?";
+    private static final int ER_DUP_ENTRY = 1062;
+    private static final int ER_LOCK_DEADLOCK = 1213;
+    private static final String SQLSTATE_UNIQUE_VIOLATION = "23505";
+    private static final String SQLSTATE_SERIALIZATION_FAILURE = "40001";
+    private static final int MAX_DEADLOCK_RETRIES = 3;
+
+    /**
+     * Outcome of an atomic seat reservation.
+     */
+    public enum Reservation {
+        RESERVED,
+        SECTION_FULL,
+        ALREADY_ENROLLED
+    }
 
     private final DatabaseManager databaseManager;
 
@@ -29,7 +58,7 @@ public class EnrollmentDao {
 
     public List<Enrollment> findByStudent(String studentId) throws SQLException {
         List<Enrollment> enrollments = new ArrayList<>();
-        try (Connection conn = databaseManager.getErpConnection();
+        try (Connection conn = databaseManager.getErpReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(SELECT_FOR_STUDENT)) {
 
             stmt.setString(1, studentId);
@@ -42,8 +71,56 @@ public class EnrollmentDao {
         return enrollments;
     }
 
+    /**
+     * Loads a student's registrations joined with their section and course in a
+     * single query. Instructor usernames live in AuthDB, so instructorName is left
+     * as "TBD" for the caller to resolve from instructorId.
+     */
+    public List<EnrollmentView> findRegistrationViews(int studentId) throws SQLException {
+        try (Connection conn = databaseManager.getErpReadConnection()) {
+            return findRegistrationViews(conn, studentId);
+        }
+    }
+
+    /**
+     * Same as findRegistrationViews, but always read from the primary, for
+     * results that are cached past the replica's read-your-writes window.
+     */
+    public List<EnrollmentView> findRegistrationViewsFromPrimary(int studentId) throws SQLException {
+        try (Connection conn = databaseManager.getErpPrimaryReadConnection()) {
+            return findRegistrationViews(conn, studentId);
+        }
+    }
+
+    private List<EnrollmentView> findRegistrationViews(Connection conn, int studentId) throws SQLException {
+        List<EnrollmentView> views = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_REGISTRATIONS_FOR_STUDENT)) {
+
+            stmt.setInt(1, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Date dropDeadline = rs.getDate("drop_deadline");
+                    views.add(new EnrollmentView(
+                            rs.getInt("enrollment_id"),
+                            rs.getInt("section_id"),
+                            rs.getString("code"),
+                            rs.getString("title"),
+                            rs.getString("day_time"),
+                            rs.getString("room"),
+                            rs.getString("status"),
+                            rs.getObject("instructor_id", Integer.class),
+                            "TBD",
+                            dropDeadline != null ? dropDeadline.toLocalDate() : null,
+                            rs.getInt("semester"),
+                            rs.getInt("year")));
+                }
+            }
+        }
+        return views;
+    }
+
     public Optional<Enrollment> findActiveEnrollment(String studentId, int sectionId) throws SQLException {
-        try (Connection conn = databaseManager.getErpConnection();
+        try (Connection conn = databaseManager.getErpReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(SELECT_ACTIVE_FOR_STUDENT_SECTION)) {
 
             stmt.setString(1, studentId);
@@ -58,7 +135,7 @@ public class EnrollmentDao {
     }
 
     public int countActiveEnrollmentsForSection(int sectionId) throws SQLException {
-        try (Connection conn = databaseManager.getErpConnection();
+        try (Connection conn = databaseManager.getErpReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(COUNT_ENROLLMENTS_FOR_SECTION)) {
 
             stmt.setInt(1, sectionId);
@@ -71,10 +148,121 @@ public class EnrollmentDao {
         return 0;
     }
 
+    /**
+     * Inserts an enrollment without a capacity check and keeps the section's
+     * seat counter in step.
+     */
     public Enrollment insertEnrollment(int studentId, int sectionId) throws SQLException {
-        try (Connection conn = databaseManager.getErpConnection();
-                PreparedStatement stmt = conn.prepareStatement(INSERT_ENROLLMENT, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = databaseManager.getErpConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Enrollment enrollment = insertEnrollment(conn, studentId, sectionId);
+                adjustSeats(conn, sectionId, 1);
+                conn.commit();
+                ReferenceDataCache.getInstance().invalidateSection(sectionId);
+                return enrollment;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Enrolls a student and claims a seat in one transaction. The seat is taken
+     * with a single conditional UPDATE on sections.seats_taken, so concurrent
+     * registrations serialize on the section row and can never oversubscribe it.
+     * A previously dropped enrollment is reactivated rather than duplicated.
+     *
+     * The seat is claimed before the enrollment row is written. The other way
+     * round, the enrollment's foreign key check share-locks the section row and
+     * two registrations deadlock upgrading it for the seat counter. A deadlock
+     * is still retried when this call owns the transaction; inside a UnitOfWork
+     * it is rethrown so the caller can replay the whole unit.
+     */
+    public Reservation reserveSeat(int studentId, int sectionId) throws SQLException {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return tryReserveSeat(studentId, sectionId);
+            } catch (SQLException e) {
+                if (!isDeadlock(e) || UnitOfWork.isActive() || attempt >= MAX_DEADLOCK_RETRIES) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private Reservation tryReserveSeat(int studentId, int sectionId) throws SQLException {
+        try (Connection conn = databaseManager.getErpConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Reservation result;
+                try (PreparedStatement stmt = conn.prepareStatement(RESERVE_SEAT)) {
+                    stmt.setInt(1, sectionId);
+                    result = stmt.executeUpdate() > 0 ? Reservation.RESERVED : Reservation.SECTION_FULL;
+                }
+                if (result == Reservation.RESERVED) {
+                    result = claimEnrollment(conn, studentId, sectionId);
+                }
+                if (result == Reservation.RESERVED) {
+                    conn.commit();
+                    ReferenceDataCache.getInstance().invalidateSection(sectionId);
+                } else {
+                    // Gives the seat back when the student already holds one
+                    conn.rollback();
+                }
+                return result;
+            } catch (SQLException e) {
+                // A deadlock has already rolled back the whole transaction; keep it as the cause
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackFailure) {
+                    e.addSuppressed(rollbackFailure);
+                }
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
 
+    private Reservation claimEnrollment(Connection conn, int studentId, int sectionId) throws SQLException {
+        try {
+            insertEnrollment(conn, studentId, sectionId);
+            return Reservation.RESERVED;
+        } catch (SQLException e) {
+            if (!isDuplicateKey(e)) {
+                throw e;
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(REACTIVATE_ENROLLMENT)) {
+            stmt.setInt(1, studentId);
+            stmt.setInt(2, sectionId);
+            return stmt.executeUpdate() > 0 ? Reservation.RESERVED : Reservation.ALREADY_ENROLLED;
+        }
+    }
+
+    /**
+     * Unique-key violation on MariaDB (1062) or H2 (SQLState 23505). Other
+     * integrity errors such as foreign key violations share MariaDB's 23000
+     * SQLState, so the state class alone is not enough.
+     */
+    private static boolean isDuplicateKey(SQLException e) {
+        return e.getErrorCode() == ER_DUP_ENTRY || SQLSTATE_UNIQUE_VIOLATION.equals(e.getSQLState());
+    }
+
+    /**
+     * Deadlock victim on MariaDB (1213) or H2 (SQLState 40001). The transaction
+     * has been rolled back and may be retried from the start.
+     */
+    public static boolean isDeadlock(SQLException e) {
+        return e.getErrorCode() == ER_LOCK_DEADLOCK || SQLSTATE_SERIALIZATION_FAILURE.equals(e.getSQLState());
+    }
+
+    private Enrollment insertEnrollment(Connection conn, int studentId, int sectionId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_ENROLLMENT, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setInt(1, studentId);
             stmt.setInt(2, sectionId);
             stmt.executeUpdate();
@@ -94,19 +282,61 @@ public class EnrollmentDao {
         throw new SQLException("Failed to insert enrollment");
     }
 
+    /**
+     * Changes an enrollment's status and releases or re-takes its seat when the
+     * change crosses the ENROLLED boundary.
+     */
     public void updateStatus(int enrollmentId, String status) throws SQLException {
-        try (Connection conn = databaseManager.getErpConnection();
-                PreparedStatement stmt = conn.prepareStatement(UPDATE_STATUS)) {
+        try (Connection conn = databaseManager.getErpConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Enrollment current = null;
+                try (PreparedStatement stmt = conn.prepareStatement(SELECT_BY_ID_FOR_UPDATE)) {
+                    stmt.setInt(1, enrollmentId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            current = mapEnrollment(rs);
+                        }
+                    }
+                }
 
-            stmt.setString(1, status);
-            stmt.setInt(2, enrollmentId);
+                try (PreparedStatement stmt = conn.prepareStatement(UPDATE_STATUS)) {
+                    stmt.setString(1, status);
+                    stmt.setInt(2, enrollmentId);
+                    stmt.executeUpdate();
+                }
+
+                if (current != null) {
+                    boolean wasActive = "ENROLLED".equals(current.getStatus());
+                    boolean isActive = "ENROLLED".equals(status);
+                    if (wasActive != isActive) {
+                        adjustSeats(conn, current.getSectionId(), isActive ? 1 : -1);
+                    }
+                }
+                conn.commit();
+                if (current != null) {
+                    ReferenceDataCache.getInstance().invalidateSection(current.getSectionId());
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private void adjustSeats(Connection conn, int sectionId, int delta) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(ADJUST_SEATS)) {
+            stmt.setInt(1, delta);
+            stmt.setInt(2, sectionId);
             stmt.executeUpdate();
         }
     }
 
     public List<Enrollment> findBySection(int sectionId) throws SQLException {
         List<Enrollment> enrollments = new ArrayList<>();
-        try (Connection conn = databaseManager.getErpConnection();
+        try (Connection conn = databaseManager.getErpReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(SELECT_FOR_SECTION)) {
 
             stmt.setInt(1, sectionId);
@@ -120,7 +350,7 @@ public class EnrollmentDao {
     }
 
     public Optional<Enrollment> findById(int enrollmentId) throws SQLException {
-        try (Connection conn = databaseManager.getErpConnection();
+        try (Connection conn = databaseManager.getErpReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(SELECT_BY_ID)) {
 
             stmt.setInt(1, enrollmentId);
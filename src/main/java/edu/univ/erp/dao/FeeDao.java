@@ -32,7 +32,7 @@ public class FeeDao {
     public List<Fee> getFeesByStudent(String studentId) throws SQLException {
         List<Fee> fees = new ArrayList<>();
         String sql = "SELECT * FROM fees WHERE student_id = ? ORDER BY due_date DESC";
-        try (Connection conn = DatabaseManager.getInstance().getErpConnection();
+        try (Connection conn = DatabaseManager.getInstance().getErpReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, studentId);
             try (ResultSet rs = stmt.executeQuery()) {
@@ -47,7 +47,7 @@ public class FeeDao {
     public List<Fee> getPendingFeesByStudent(String studentId) throws SQLException {
         List<Fee> fees = new ArrayList<>();
         String sql = "SELECT * FROM fees WHERE student_id = ? AND status = 'PENDING' ORDER BY due_date ASC";
-        try (Connection conn = DatabaseManager.getInstance().getErpConnection();
+        try (Connection conn = DatabaseManager.getInstance().getErpReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, studentId);
             try (ResultSet rs = stmt.executeQuery()) {
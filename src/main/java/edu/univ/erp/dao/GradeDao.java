@@ -1,18 +1,61 @@
 package edu.univ.erp.dao;
 
 import edu.univ.erp.config.DatabaseManager;
+import edu.univ.erp.model.ClassStatistics;
 import edu.univ.erp.model.Grade;
+import edu.univ.erp.model.view.GradeView;
+import edu.univ.erp.model.view.GradebookRow;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class GradeDao {
     private static final String SELECT_BY_ENROLLMENT = "SELECT enrollment_id, component, score, final_score FROM grades WHERE enrollment_id = ? ORDER BY component";
     private static final String SELECT_BY_STUDENT = "SELECT g.enrollment_id, g.component, g.score, g.final_score FROM grades g INNER JOIN enrollments e ON g.enrollment_id = e.enrollment_id WHERE e.student_id = ? ORDER BY g.enrollment_id, g.component";
+    private static final String SELECT_TRANSCRIPT = "SELECT c.code, c.title, c.credits, e.section_id, g.component, g.score, g.final_score "
+            + "FROM grades g "
+            + "INNER JOIN enrollments e ON e.enrollment_id = g.enrollment_id "
+            + "INNER JOIN sections s ON s.section_id = e.section_id "
+            + "INNER JOIN courses c ON c.code = s.course_id "
+            + "WHERE e.student_id = ? "
+            + "ORDER BY g.enrollment_id, g.component";
+    private static final String SELECT_PASSED_COURSES = "SELECT DISTINCT s.course_id "
+            + "FROM grades g "
+            + "INNER JOIN enrollments e ON e.enrollment_id = g.enrollment_id "
+            + "INNER JOIN sections s ON s.section_id = e.section_id "
+            + "WHERE e.student_id = ? AND g.final_score >= ?";
+    private static final String SELECT_GRADEBOOK_FOR_SECTION = "SELECT e.enrollment_id, e.student_id, st.roll_no, g.component, g.score, g.final_score "
+            + "FROM enrollments e "
+            + "LEFT JOIN students st ON st.user_id = e.student_id "
+            + "LEFT JOIN grades g ON g.enrollment_id = e.enrollment_id "
+            + "WHERE e.section_id = ? "
+            + "ORDER BY e.enrollment_id, g.component";
+    // Aggregates over each enrollment's final score; %s is the grouping column list and %s the section filter
+    private static final String SELECT_CLASS_STATISTICS = "SELECT %s COUNT(*) AS student_count, COUNT(f.final_score) AS graded_count, "
+            + "AVG(f.final_score) AS avg_score, MIN(f.final_score) AS min_score, MAX(f.final_score) AS max_score, "
+            + "STDDEV_POP(f.final_score) AS std_dev, "
+            + "SUM(CASE WHEN f.final_score >= 90 THEN 1 ELSE 0 END) AS grade_a, "
+            + "SUM(CASE WHEN f.final_score >= 80 AND f.final_score < 90 THEN 1 ELSE 0 END) AS grade_b, "
+            + "SUM(CASE WHEN f.final_score >= 70 AND f.final_score < 80 THEN 1 ELSE 0 END) AS grade_c, "
+            + "SUM(CASE WHEN f.final_score >= 60 AND f.final_score < 70 THEN 1 ELSE 0 END) AS grade_d, "
+            + "SUM(CASE WHEN f.final_score < 60 THEN 1 ELSE 0 END) AS grade_f "
+            + "FROM enrollments e "
+            + "LEFT JOIN (SELECT enrollment_id, MAX(final_score) AS final_score FROM grades GROUP BY enrollment_id) f "
+            + "ON f.enrollment_id = e.enrollment_id "
+            + "WHERE e.section_id IN (%s) %s";
+    private static final String DEPARTMENT_SECTIONS = "SELECT s.section_id FROM sections s "
+            + "INNER JOIN instructors i ON i.user_id = s.instructor_id WHERE i.department = ?";
     private static final String UPSERT_GRADE = "INSERT INTO grades (enrollment_id, component, score, final_score) VALUES (?, ?, ?, ?) "
             +
             "ON DUPLICATE KEY UPDATE score = VALUES(score), final_score = VALUES(final_score)";
@@ -28,16 +71,176 @@ public class GradeDao {
     }
 
     public List<Grade> findByEnrollment(int enrollmentId) throws SQLException {
-        System.out.println("[DEBUG] findByEnrollment called for enrollment: " + enrollmentId);
-        List<Grade> grades = queryGrades(SELECT_BY_ENROLLMENT, ps -> ps.setInt(1, enrollmentId));
-        System.out.println("[DEBUG] findByEnrollment returning " + grades.size() + " grades");
-        return grades;
+        return queryGrades(SELECT_BY_ENROLLMENT, ps -> ps.setInt(1, enrollmentId));
     }
 
     public List<Grade> findByStudent(String studentId) throws SQLException {
         return queryGrades(SELECT_BY_STUDENT, ps -> ps.setString(1, studentId));
     }
 
+    /**
+     * Loads every grade component a student has, together with the course code,
+     * title, credits and section it belongs to, in a single joined query.
+     */
+    public List<GradeView> findTranscript(int studentId) throws SQLException {
+        List<GradeView> rows = new ArrayList<>();
+        try (Connection conn = databaseManager.getErpReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(SELECT_TRANSCRIPT)) {
+
+            stmt.setInt(1, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new GradeView(rs.getString("code"), rs.getString("title"), rs.getInt("credits"),
+                            rs.getInt("section_id"), rs.getInt("component"), rs.getInt("score"),
+                            rs.getObject("final_score", Integer.class)));
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the codes of every course in which the student has a final score
+     * of at least passingScore.
+     */
+    public Set<String> findPassedCourseCodes(int studentId, int passingScore) throws SQLException {
+        Set<String> codes = new HashSet<>();
+        try (Connection conn = databaseManager.getErpReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(SELECT_PASSED_COURSES)) {
+
+            stmt.setInt(1, studentId);
+            stmt.setInt(2, passingScore);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    codes.add(rs.getString("course_id"));
+                }
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * Loads the gradebook for a whole section in one query and pivots components
+     * 1-3 into one row per enrollment. Usernames live in AuthDB, so studentName is
+     * left as "Unknown" for the caller to resolve.
+     */
+    public List<GradebookRow> findGradebookBySection(int sectionId) throws SQLException {
+        List<GradebookRow> rows = new ArrayList<>();
+        try (Connection conn = databaseManager.getErpReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(SELECT_GRADEBOOK_FOR_SECTION)) {
+
+            stmt.setInt(1, sectionId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                int enrollmentId = -1;
+                int studentId = 0;
+                int rollNumber = 0;
+                Integer[] scores = new Integer[3];
+                Integer finalScore = null;
+
+                while (rs.next()) {
+                    int currentId = rs.getInt("enrollment_id");
+                    if (currentId != enrollmentId) {
+                        if (enrollmentId != -1) {
+                            rows.add(new GradebookRow(enrollmentId, studentId, "Unknown", rollNumber,
+                                    scores[0], scores[1], scores[2], finalScore));
+                        }
+                        enrollmentId = currentId;
+                        studentId = rs.getInt("student_id");
+                        rollNumber = rs.getInt("roll_no");
+                        scores = new Integer[3];
+                        finalScore = null;
+                    }
+
+                    Integer component = rs.getObject("component", Integer.class);
+                    if (component != null && component >= 1 && component <= 3) {
+                        scores[component - 1] = rs.getObject("score", Integer.class);
+                    }
+                    Integer rowFinal = rs.getObject("final_score", Integer.class);
+                    if (rowFinal != null) {
+                        finalScore = rowFinal;
+                    }
+                }
+                if (enrollmentId != -1) {
+                    rows.add(new GradebookRow(enrollmentId, studentId, "Unknown", rollNumber,
+                            scores[0], scores[1], scores[2], finalScore));
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Computes final-score statistics for one section in a single aggregate query.
+     */
+    public ClassStatistics findClassStatistics(int sectionId) throws SQLException {
+        return findClassStatistics(List.of(sectionId)).getOrDefault(sectionId, emptyStatistics());
+    }
+
+    /**
+     * Computes final-score statistics for many sections in one grouped query,
+     * keyed by section id. Sections without enrollments are absent from the map.
+     */
+    public Map<Integer, ClassStatistics> findClassStatistics(Collection<Integer> sectionIds) throws SQLException {
+        Map<Integer, ClassStatistics> stats = new HashMap<>();
+        if (sectionIds.isEmpty()) {
+            return stats;
+        }
+        List<Integer> ids = new ArrayList<>(sectionIds);
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        String sql = String.format(SELECT_CLASS_STATISTICS, "e.section_id,", placeholders, "GROUP BY e.section_id");
+        try (Connection conn = databaseManager.getErpReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < ids.size(); i++) {
+                stmt.setInt(i + 1, ids.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    stats.put(rs.getInt("section_id"), mapStatistics(rs));
+                }
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Pools every section taught by a department's instructors into one set of
+     * statistics, computed in a single pass.
+     */
+    public ClassStatistics findDepartmentStatistics(String department) throws SQLException {
+        String sql = String.format(SELECT_CLASS_STATISTICS, "", DEPARTMENT_SECTIONS, "");
+        try (Connection conn = databaseManager.getErpReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, department);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapStatistics(rs);
+                }
+            }
+        }
+        return emptyStatistics();
+    }
+
+    private ClassStatistics mapStatistics(ResultSet rs) throws SQLException {
+        int studentCount = rs.getInt("student_count");
+        if (rs.getInt("graded_count") == 0) {
+            return new ClassStatistics(0, 0, 0, 0, studentCount, Collections.emptyMap());
+        }
+        Map<String, Integer> distribution = new HashMap<>();
+        distribution.put("A", rs.getInt("grade_a"));
+        distribution.put("B", rs.getInt("grade_b"));
+        distribution.put("C", rs.getInt("grade_c"));
+        distribution.put("D", rs.getInt("grade_d"));
+        distribution.put("F", rs.getInt("grade_f"));
+        return new ClassStatistics(rs.getDouble("avg_score"), rs.getInt("min_score"), rs.getInt("max_score"),
+                rs.getDouble("std_dev"), studentCount, distribution);
+    }
+
+    private ClassStatistics emptyStatistics() {
+        return new ClassStatistics(0, 0, 0, 0, 0, Collections.emptyMap());
+    }
+
     public void upsertGrade(int enrollmentId, int component, int score, Integer finalScore) throws SQLException {
         try (Connection conn = databaseManager.getErpConnection();
                 PreparedStatement stmt = conn.prepareStatement(UPSERT_GRADE)) {
@@ -54,37 +257,46 @@ public class GradeDao {
         }
     }
 
-    public void upsertGradeWithConnection(Connection conn, int enrollmentId, int component, Integer score,
-            Integer finalScore) throws SQLException {
-        // Always use UPSERT_GRADE which properly handles ON DUPLICATE KEY UPDATE
-        // This ensures we update existing rows instead of creating duplicates
-        try (PreparedStatement stmt = conn.prepareStatement(UPSERT_GRADE)) {
-            stmt.setInt(1, enrollmentId);
-            stmt.setInt(2, component);
-            if (score == null) {
-                stmt.setNull(3, java.sql.Types.INTEGER);
-            } else {
-                stmt.setInt(3, score);
-            }
-            if (finalScore == null) {
-                stmt.setNull(4, java.sql.Types.INTEGER);
-            } else {
-                stmt.setInt(4, finalScore);
+    /**
+     * A single component score to be written as part of a gradebook save.
+     * A null score clears the component.
+     */
+    public record ComponentScore(int enrollmentId, int component, Integer score, int finalScore) {
+    }
+
+    /**
+     * Writes a whole gradebook on the caller's connection using one prepared
+     * statement per statement type and a single executeBatch for each. The caller
+     * owns the transaction.
+     */
+    public void upsertGradesBatch(Connection conn, List<ComponentScore> scores) throws SQLException {
+        if (scores.isEmpty()) {
+            return;
+        }
+        Map<Integer, Integer> finalScores = new LinkedHashMap<>();
+        try (PreparedStatement upsert = conn.prepareStatement(UPSERT_GRADE);
+                PreparedStatement updateFinal = conn.prepareStatement(UPDATE_FINAL_SCORE)) {
+            for (ComponentScore entry : scores) {
+                upsert.setInt(1, entry.enrollmentId());
+                upsert.setInt(2, entry.component());
+                if (entry.score() == null) {
+                    upsert.setNull(3, java.sql.Types.INTEGER);
+                } else {
+                    upsert.setInt(3, entry.score());
+                }
+                upsert.setInt(4, entry.finalScore());
+                upsert.addBatch();
+                finalScores.put(entry.enrollmentId(), entry.finalScore());
             }
-            int rowsAffected = stmt.executeUpdate();
-            System.out.println("[DEBUG] UPSERT_GRADE executed: enrollment=" + enrollmentId +
-                    ", component=" + component + ", score=" + score +
-                    ", finalScore=" + finalScore + ", rowsAffected=" + rowsAffected);
-
-            // Verify the row was inserted/updated
-            if (rowsAffected == 0) {
-                System.err.println("[WARNING] UPSERT_GRADE affected 0 rows for enrollment=" + enrollmentId +
-                        ", component=" + component);
+            upsert.executeBatch();
+
+            // Carry the final score onto any other component rows of the same enrollment
+            for (Map.Entry<Integer, Integer> entry : finalScores.entrySet()) {
+                updateFinal.setInt(1, entry.getValue());
+                updateFinal.setInt(2, entry.getKey());
+                updateFinal.addBatch();
             }
-        } catch (SQLException e) {
-            System.err.println("[ERROR] UPSERT_GRADE failed for enrollment=" + enrollmentId +
-                    ", component=" + component + ": " + e.getMessage());
-            throw e;
+            updateFinal.executeBatch();
         }
     }
 
@@ -98,17 +310,6 @@ public class GradeDao {
         }
     }
 
-    public int updateFinalScoreWithConnection(Connection conn, int enrollmentId, int finalScore) throws SQLException {
-        try (PreparedStatement stmt = conn.prepareStatement(UPDATE_FINAL_SCORE)) {
-            stmt.setInt(1, finalScore);
-            stmt.setInt(2, enrollmentId);
-            int rowsUpdated = stmt.executeUpdate();
-            System.out.println("[DEBUG] UPDATE_FINAL_SCORE executed: " + rowsUpdated + " rows updated for enrollment "
-                    + enrollmentId);
-            return rowsUpdated;
-        }
-    }
-
     public Connection getConnection() throws SQLException {
         Connection conn = databaseManager.getErpConnection();
         // Ensure we have proper transaction isolation for consistency
@@ -116,34 +317,12 @@ public class GradeDao {
         return conn;
     }
 
-    public List<Grade> findByEnrollmentWithConnection(Connection conn, int enrollmentId) throws SQLException {
-        List<Grade> grades = new ArrayList<>();
-        try (PreparedStatement stmt = conn.prepareStatement(SELECT_BY_ENROLLMENT)) {
-            stmt.setInt(1, enrollmentId);
-            System.out.println(
-                    "[DEBUG] Verifying grades with query: " + SELECT_BY_ENROLLMENT + " for enrollment " + enrollmentId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Grade grade = new Grade();
-                    grade.setEnrollmentId(rs.getInt("enrollment_id"));
-                    grade.setComponent(rs.getInt("component"));
-                    grade.setScore(rs.getInt("score"));
-                    int finalScore = rs.getInt("final_score");
-                    grade.setFinalScore(rs.wasNull() ? null : finalScore);
-                    grades.add(grade);
-                }
-            }
-        }
-        return grades;
-    }
-
     private List<Grade> queryGrades(String sql, StatementPreparer preparer) throws SQLException {
         List<Grade> grades = new ArrayList<>();
-        try (Connection conn = databaseManager.getErpConnection();
+        try (Connection conn = databaseManager.getErpReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             preparer.prepare(stmt);
-            System.out.println("[DEBUG] Executing query: " + sql);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     Grade grade = new Grade();
@@ -152,12 +331,8 @@ public class GradeDao {
                     grade.setScore(rs.getInt("score"));
                     int finalScore = rs.getInt("final_score");
                     grade.setFinalScore(rs.wasNull() ? null : finalScore);
-                    System.out.println("[DEBUG] Loaded grade: enrollment=" + grade.getEnrollmentId() +
-                            ", component=" + grade.getComponent() + ", score=" + grade.getScore() +
-                            ", finalScore=" + grade.getFinalScore());
                     grades.add(grade);
                 }
-                System.out.println("[DEBUG] Total grades loaded: " + grades.size());
             }
         }
         return grades;
@@ -32,7 +32,7 @@ public class InstructorDao {
     }
 
     public Optional<Instructor> findByUserId(int userId) throws SQLException {
-        try (Connection conn = databaseManager.getErpConnection();
+        try (Connection conn = databaseManager.getErpReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(SELECT_BY_USER)) {
             stmt.setInt(1, userId);
             try (ResultSet rs = stmt.executeQuery()) {
@@ -49,7 +49,7 @@ public class InstructorDao {
 
     public List<Instructor> findAll() throws SQLException {
         List<Instructor> instructors = new ArrayList<>();
-        try (Connection conn = databaseManager.getErpConnection();
+        try (Connection conn = databaseManager.getErpReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(SELECT_ALL);
                 ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
@@ -1,30 +1,71 @@
 package edu.univ.erp.dao;
 
+import edu.univ.erp.cache.ReferenceDataCache;
 import edu.univ.erp.config.DatabaseManager;
+import edu.univ.erp.model.MeetingTime;
 import edu.univ.erp.model.Section;
+import edu.univ.erp.model.view.CourseSectionView;
+import edu.univ.erp.model.view.InstructorSectionTotals;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public class SectionDao {
-    private static final String SELECT_BY_ID = "SELECT section_id, course_id, instructor_id, day_time, room, capacity, semester, year, drop_deadline FROM sections WHERE section_id = ?";
-    private static final String SELECT_ALL = "SELECT section_id, course_id, instructor_id, day_time, room, capacity, semester, year, drop_deadline FROM sections";
-    private static final String INSERT_SECTION = "INSERT INTO sections (course_id, instructor_id, day_time, room, capacity, semester, year, drop_deadline) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_BY_ID = "SELECT section_id, course_id, instructor_id, day_time, room, capacity, seats_taken, semester, year, drop_deadline FROM sections WHERE section_id = ?";
+    private static final String SELECT_ALL = "SELECT section_id, course_id, instructor_id, day_time, room, capacity, seats_taken, semester, year, drop_deadline FROM sections";
+    private static final String SELECT_IDS_BY_INSTRUCTOR = "SELECT section_id FROM sections WHERE instructor_id = ?";
+    private static final String SELECT_BY_INSTRUCTOR = "SELECT section_id, course_id, instructor_id, day_time, room, capacity, seats_taken, semester, year, drop_deadline FROM sections WHERE instructor_id = ? ORDER BY section_id";
+    private static final String INSERT_SECTION = "INSERT INTO sections (course_id, instructor_id, day_time, days_mask, start_minute, end_minute, room, capacity, semester, year, drop_deadline) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Each branch is served by its own index: room bookings by idx_sections_room_term, teaching load by idx_sections_instructor
+    private static final String SELECT_SCHEDULE_CONFLICT = "SELECT section_id, course_id, instructor_id, day_time, room, capacity, seats_taken, semester, year, drop_deadline FROM sections "
+            + "WHERE room = ? AND year = ? AND semester = ? AND (days_mask & ?) <> 0 AND start_minute < ? AND end_minute > ? "
+            + "UNION ALL "
+            + "SELECT section_id, course_id, instructor_id, day_time, room, capacity, seats_taken, semester, year, drop_deadline FROM sections "
+            + "WHERE instructor_id = ? AND year = ? AND semester = ? AND (days_mask & ?) <> 0 AND start_minute < ? AND end_minute > ? "
+            + "LIMIT 1";
     private static final String UPDATE_INSTRUCTOR = "UPDATE sections SET instructor_id = ? WHERE section_id = ?";
+    private static final String SELECT_UNPARSED_MEETINGS = "SELECT section_id, day_time FROM sections WHERE days_mask IS NULL AND day_time IS NOT NULL";
+    private static final String UPDATE_MEETING = "UPDATE sections SET days_mask = ?, start_minute = ?, end_minute = ? WHERE section_id = ? AND days_mask IS NULL";
+    private static final String SELECT_CATALOG = "SELECT s.section_id, s.course_id, s.instructor_id, s.day_time, s.room, s.capacity, s.semester, s.year, "
+            + "s.seats_taken, c.title, c.credits "
+            + "FROM sections s "
+            + "INNER JOIN courses c ON c.code = s.course_id "
+            + "ORDER BY s.section_id";
+    private static final String SUM_SEATS_TAKEN = "SELECT COALESCE(SUM(seats_taken), 0) FROM sections";
+
+    private static final String SELECT_INSTRUCTOR_DASHBOARD = "SELECT COUNT(*) AS total_sections, "
+            + "COUNT(DISTINCT t.course_id) AS total_courses, "
+            + "COALESCE(SUM(t.active_count), 0) AS total_enrollments, "
+            + "COALESCE(SUM(CASE WHEN t.active_count > 0 AND t.graded_count < t.active_count THEN 1 ELSE 0 END), 0) AS pending_sections "
+            + "FROM (SELECT s.section_id, s.course_id, COUNT(e.enrollment_id) AS active_count, COUNT(g.enrollment_id) AS graded_count "
+            + "FROM sections s "
+            + "LEFT JOIN enrollments e ON e.section_id = s.section_id AND e.status = 'ENROLLED' "
+            + "LEFT JOIN (SELECT DISTINCT enrollment_id FROM grades) g ON g.enrollment_id = e.enrollment_id "
+            + "WHERE s.instructor_id = ? "
+            + "GROUP BY s.section_id, s.course_id) t";
 
     private final DatabaseManager databaseManager;
+    private final ReferenceDataCache cache;
 
     public SectionDao() {
         this.databaseManager = DatabaseManager.getInstance();
+        this.cache = ReferenceDataCache.getInstance();
     }
 
     public Optional<Section> findById(int sectionId) throws SQLException {
-        try (Connection conn = databaseManager.getErpConnection();
+        return cache.sections().get(sectionId, this::loadById);
+    }
+
+    private Optional<Section> loadById(int sectionId) throws SQLException {
+        // Cached for the TTL, so read the primary rather than a possibly lagging replica
+        try (Connection conn = databaseManager.getErpPrimaryReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(SELECT_BY_ID)) {
 
             stmt.setInt(1, sectionId);
@@ -39,7 +80,7 @@ public class SectionDao {
 
     public List<Section> findAll() throws SQLException {
         List<Section> sections = new ArrayList<>();
-        try (Connection conn = databaseManager.getErpConnection();
+        try (Connection conn = databaseManager.getErpReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(SELECT_ALL)) {
             try (ResultSet rs = stmt.executeQuery()) {
 
@@ -51,6 +92,107 @@ public class SectionDao {
         return sections;
     }
 
+    /**
+     * Sections taught by one instructor, served by idx_sections_instructor.
+     */
+    public List<Section> findByInstructor(int instructorId) throws SQLException {
+        List<Section> sections = new ArrayList<>();
+        try (Connection conn = databaseManager.getErpReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(SELECT_BY_INSTRUCTOR)) {
+
+            stmt.setInt(1, instructorId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    sections.add(mapSection(rs));
+                }
+            }
+        }
+        return sections;
+    }
+
+    /**
+     * Ids of the sections an instructor teaches, read from the primary because
+     * callers keep the result for a whole session.
+     */
+    public Set<Integer> findSectionIdsByInstructor(int instructorId) throws SQLException {
+        Set<Integer> sectionIds = new HashSet<>();
+        try (Connection conn = databaseManager.getErpPrimaryReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(SELECT_IDS_BY_INSTRUCTOR)) {
+
+            stmt.setInt(1, instructorId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    sectionIds.add(rs.getInt("section_id"));
+                }
+            }
+        }
+        return sectionIds;
+    }
+
+    /**
+     * Loads every section joined with its course and live seat count in a single
+     * query. Instructor names live in AuthDB, so they are left as "TBD" for the
+     * caller to resolve.
+     */
+    public List<CourseSectionView> findCatalog() throws SQLException {
+        List<CourseSectionView> catalog = new ArrayList<>();
+        try (Connection conn = databaseManager.getErpReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(SELECT_CATALOG);
+                ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                catalog.add(new CourseSectionView(
+                        rs.getString("course_id"),
+                        rs.getString("title"),
+                        rs.getInt("credits"),
+                        rs.getInt("section_id"),
+                        rs.getString("day_time"),
+                        rs.getString("room"),
+                        rs.getObject("instructor_id", Integer.class),
+                        "TBD",
+                        rs.getInt("capacity"),
+                        rs.getInt("seats_taken"),
+                        rs.getInt("semester"),
+                        rs.getInt("year")));
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Computes an instructor's dashboard figures (sections, courses, active
+     * enrollments and sections still missing grades) in one aggregate query.
+     */
+    public InstructorSectionTotals findDashboardStats(int instructorId) throws SQLException {
+        try (Connection conn = databaseManager.getErpReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(SELECT_INSTRUCTOR_DASHBOARD)) {
+
+            stmt.setInt(1, instructorId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new InstructorSectionTotals(rs.getInt("total_sections"), rs.getInt("total_courses"),
+                            rs.getInt("total_enrollments"), rs.getInt("pending_sections"));
+                }
+            }
+        }
+        return new InstructorSectionTotals(0, 0, 0, 0);
+    }
+
+    /**
+     * Total active enrollments across all sections, read from the maintained
+     * seats_taken counters rather than counting enrollment rows.
+     */
+    public int countAllSeatsTaken() throws SQLException {
+        try (Connection conn = databaseManager.getErpReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(SUM_SEATS_TAKEN);
+                ResultSet rs = stmt.executeQuery()) {
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        }
+        return 0;
+    }
+
     public int insertSection(Section section) throws SQLException {
         try (Connection conn = databaseManager.getErpConnection();
                 PreparedStatement stmt = conn.prepareStatement(INSERT_SECTION,
@@ -63,26 +205,109 @@ public class SectionDao {
                 stmt.setNull(2, java.sql.Types.INTEGER);
             }
             stmt.setString(3, section.getDayTime());
-            stmt.setString(4, section.getRoom());
-            stmt.setInt(5, section.getCapacity());
-            stmt.setInt(6, section.getSemester());
-            stmt.setInt(7, section.getYear());
+            MeetingTime meetingTime = section.getMeetingTime();
+            if (meetingTime != null) {
+                stmt.setInt(4, meetingTime.getDaysMask());
+                stmt.setInt(5, meetingTime.getStartMinutes());
+                stmt.setInt(6, meetingTime.getEndMinutes());
+            } else {
+                stmt.setNull(4, java.sql.Types.INTEGER);
+                stmt.setNull(5, java.sql.Types.INTEGER);
+                stmt.setNull(6, java.sql.Types.INTEGER);
+            }
+            stmt.setString(7, section.getRoom());
+            stmt.setInt(8, section.getCapacity());
+            stmt.setInt(9, section.getSemester());
+            stmt.setInt(10, section.getYear());
             if (section.getDropDeadline() != null) {
-                stmt.setDate(8, java.sql.Date.valueOf(section.getDropDeadline()));
+                stmt.setDate(11, java.sql.Date.valueOf(section.getDropDeadline()));
             } else {
-                stmt.setNull(8, java.sql.Types.DATE);
+                stmt.setNull(11, java.sql.Types.DATE);
             }
             stmt.executeUpdate();
 
             try (ResultSet rs = stmt.getGeneratedKeys()) {
                 if (rs.next()) {
-                    return rs.getInt(1);
+                    int sectionId = rs.getInt(1);
+                    cache.invalidateSection(sectionId);
+                    return sectionId;
                 }
             }
         }
         throw new SQLException("Failed to create section");
     }
 
+    /**
+     * Finds a section in the same term that would be double-booked with the given
+     * one, either in the same room or with the same instructor at an overlapping
+     * time. Sections whose day_time could not be parsed are never reported.
+     */
+    public Optional<Section> findScheduleConflict(Section section) throws SQLException {
+        MeetingTime meetingTime = section.getMeetingTime();
+        if (meetingTime == null) {
+            return Optional.empty();
+        }
+        try (Connection conn = databaseManager.getErpConnection();
+                PreparedStatement stmt = conn.prepareStatement(SELECT_SCHEDULE_CONFLICT)) {
+
+            stmt.setString(1, section.getRoom());
+            bindTermAndTime(stmt, 2, section, meetingTime);
+            if (section.getInstructorId() != null) {
+                stmt.setInt(7, section.getInstructorId());
+            } else {
+                stmt.setNull(7, java.sql.Types.INTEGER);
+            }
+            bindTermAndTime(stmt, 8, section, meetingTime);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(mapSection(rs));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void bindTermAndTime(PreparedStatement stmt, int index, Section section, MeetingTime meetingTime)
+            throws SQLException {
+        stmt.setInt(index, section.getYear());
+        stmt.setInt(index + 1, section.getSemester());
+        stmt.setInt(index + 2, meetingTime.getDaysMask());
+        stmt.setInt(index + 3, meetingTime.getEndMinutes());
+        stmt.setInt(index + 4, meetingTime.getStartMinutes());
+    }
+
+    /**
+     * Fills days_mask, start_minute and end_minute for rows written without
+     * them, e.g. by SQL scripts, using the same parser as insertSection so every
+     * accepted day_time format is covered. Rows that still cannot be parsed
+     * stay NULL. Returns the number of rows filled.
+     */
+    public int backfillMeetingTimes() throws SQLException {
+        int filled = 0;
+        try (Connection conn = databaseManager.getErpConnection();
+                PreparedStatement select = conn.prepareStatement(SELECT_UNPARSED_MEETINGS);
+                PreparedStatement update = conn.prepareStatement(UPDATE_MEETING)) {
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    MeetingTime meetingTime = MeetingTime.parse(rs.getString("day_time"));
+                    if (meetingTime == null) {
+                        continue;
+                    }
+                    update.setInt(1, meetingTime.getDaysMask());
+                    update.setInt(2, meetingTime.getStartMinutes());
+                    update.setInt(3, meetingTime.getEndMinutes());
+                    update.setInt(4, rs.getInt("section_id"));
+                    update.addBatch();
+                    filled++;
+                }
+            }
+            if (filled > 0) {
+                update.executeBatch();
+            }
+        }
+        return filled;
+    }
+
     public void updateInstructor(int sectionId, Integer instructorId) throws SQLException {
         try (Connection conn = databaseManager.getErpConnection();
                 PreparedStatement stmt = conn.prepareStatement(UPDATE_INSTRUCTOR)) {
@@ -93,6 +318,8 @@ public class SectionDao {
             }
             stmt.setInt(2, sectionId);
             stmt.executeUpdate();
+        } finally {
+            cache.invalidateSection(sectionId);
         }
     }
 
@@ -102,6 +329,8 @@ public class SectionDao {
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, sectionId);
             stmt.executeUpdate();
+        } finally {
+            cache.invalidateSection(sectionId);
         }
     }
 
@@ -114,6 +343,7 @@ public class SectionDao {
         section.setDayTime(rs.getString("day_time"));
         section.setRoom(rs.getString("room"));
         section.setCapacity(rs.getInt("capacity"));
+        section.setSeatsTaken(rs.getInt("seats_taken"));
         section.setSemester(rs.getInt("semester"));
         section.setYear(rs.getInt("year"));
         java.sql.Date dropDeadline = rs.getDate("drop_deadline");
@@ -17,6 +17,9 @@ public class SettingsDao {
         this.databaseManager = DatabaseManager.getInstance();
     }
 
+    /**
+     * Reads the flag from the settings table; every call runs a query.
+     */
     public boolean isMaintenanceMode() throws SQLException {
         try (Connection conn = databaseManager.getErpConnection();
              PreparedStatement stmt = conn.prepareStatement(SELECT_MAINTENANCE);
@@ -23,7 +23,7 @@ public class StudentDao {
     }
 
     public Optional<Student> findByUserId(int userId) throws SQLException {
-        try (Connection conn = databaseManager.getErpConnection();
+        try (Connection conn = databaseManager.getErpReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(SELECT_BY_USER)) {
 
             stmt.setInt(1, userId);
@@ -54,7 +54,7 @@ public class StudentDao {
 
     public List<Student> findAll() throws SQLException {
         List<Student> students = new ArrayList<>();
-        try (Connection conn = databaseManager.getErpConnection();
+        try (Connection conn = databaseManager.getErpReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(SELECT_ALL);
                 ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
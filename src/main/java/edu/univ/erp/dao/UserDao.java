@@ -1,6 +1,8 @@
 package edu.univ.erp.dao;
 
+import edu.univ.erp.cache.ReferenceDataCache;
 import edu.univ.erp.config.DatabaseManager;
+import edu.univ.erp.model.Identity;
 import edu.univ.erp.model.User;
 
 import java.sql.Connection;
@@ -9,6 +11,12 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * DAO for interacting with the users_auth table in AuthDB.
@@ -16,21 +24,31 @@ import java.time.LocalDateTime;
 public class UserDao {
     private static final String SELECT_BY_USERNAME = "SELECT user_id, username, role, password_hash, status, last_login, failed_attempts, lockout_time FROM users_auth WHERE username = ?";
     private static final String SELECT_BY_ID = "SELECT user_id, username, role, password_hash, status, last_login, failed_attempts, lockout_time FROM users_auth WHERE user_id = ?";
-    private static final String UPDATE_LAST_LOGIN = "UPDATE users_auth SET last_login = ? WHERE user_id = ?";
+    private static final String SELECT_IDENTITIES_BY_IDS = "SELECT user_id, username, role FROM users_auth WHERE user_id IN (%s)";
     private static final String COUNT_USERNAME = "SELECT COUNT(*) FROM users_auth WHERE username = ?";
     private static final String NEXT_USER_ID = "SELECT COALESCE(MAX(user_id), 0) + 1 AS next_id FROM users_auth";
     private static final String INSERT_USER = "INSERT INTO users_auth (username, role, password_hash, status) VALUES (?, ?, ?, 'ACTIVE')";
     private static final String DELETE_BY_USERNAME = "DELETE FROM users_auth WHERE username = ?";
     private static final String UPDATE_PASSWORD = "UPDATE users_auth SET password_hash = ? WHERE username = ?";
-    private static final String UPDATE_FAILED_ATTEMPTS = "UPDATE users_auth SET failed_attempts = ?, lockout_time = ? WHERE user_id = ?";
-    private static final String RESET_FAILED_ATTEMPTS = "UPDATE users_auth SET failed_attempts = 0, lockout_time = NULL WHERE user_id = ?";
+    private static final String UPDATE_PASSWORD_HASH = "UPDATE users_auth SET password_hash = ? WHERE user_id = ?";
+    // Both outcome updates skip accounts whose lockout is still running, so the
+    // lock check and the write happen under the same row lock. lockout_time is
+    // assigned before failed_attempts so it sees the old counter on every engine.
+    private static final String RECORD_LOGIN_SUCCESS = "UPDATE users_auth SET failed_attempts = 0, lockout_time = NULL, last_login = ? "
+            + "WHERE user_id = ? AND (lockout_time IS NULL OR lockout_time <= ?)";
+    private static final String RECORD_LOGIN_FAILURE = "UPDATE users_auth SET "
+            + "lockout_time = CASE WHEN MOD(failed_attempts + 1, ?) = 0 THEN ? ELSE lockout_time END, "
+            + "failed_attempts = failed_attempts + 1 "
+            + "WHERE user_id = ? AND (lockout_time IS NULL OR lockout_time <= ?)";
     private static final String INSERT_PASSWORD_HISTORY = "INSERT INTO password_history (user_id, password_hash) VALUES (?, ?)";
     private static final String CHECK_PASSWORD_HISTORY = "SELECT password_hash FROM password_history WHERE user_id = ? ORDER BY changed_at DESC LIMIT 3";
 
     private final DatabaseManager dbManager;
+    private final ReferenceDataCache cache;
 
     public UserDao() {
         this.dbManager = DatabaseManager.getInstance();
+        this.cache = ReferenceDataCache.getInstance();
     }
 
     public User findByUsername(String username) throws SQLException {
@@ -51,6 +69,48 @@ public class UserDao {
         }
     }
 
+    /**
+     * Resolves identities for a batch of user ids through the identity cache,
+     * fetching all misses with a single IN-list query. Ids with no matching
+     * account are absent from the returned map.
+     */
+    public Map<Integer, Identity> findByIds(Collection<Integer> userIds) throws SQLException {
+        if (userIds == null || userIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return cache.identities().getAll(userIds, this::loadIdentities);
+    }
+
+    public Optional<Identity> findIdentityById(int userId) throws SQLException {
+        return Optional.ofNullable(findByIds(List.of(userId)).get(userId));
+    }
+
+    public Map<Integer, String> findUsernamesByIds(Collection<Integer> userIds) throws SQLException {
+        return findByIds(userIds).values().stream()
+                .collect(Collectors.toMap(Identity::userId, Identity::username));
+    }
+
+    private Map<Integer, Identity> loadIdentities(Collection<Integer> ids) throws SQLException {
+        Map<Integer, Identity> identities = new HashMap<>();
+        String placeholders = ids.stream().map(id -> "?").collect(Collectors.joining(", "));
+        try (Connection conn = dbManager.getAuthConnection();
+                PreparedStatement stmt = conn.prepareStatement(String.format(SELECT_IDENTITIES_BY_IDS, placeholders))) {
+
+            int index = 1;
+            for (int id : ids) {
+                stmt.setInt(index++, id);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Identity identity = new Identity(rs.getInt("user_id"), rs.getString("username"),
+                            rs.getString("role"));
+                    identities.put(identity.userId(), identity);
+                }
+            }
+        }
+        return identities;
+    }
+
     private User getUser(PreparedStatement stmt) throws SQLException {
         try (ResultSet rs = stmt.executeQuery()) {
             if (rs.next()) {
@@ -78,13 +138,33 @@ public class UserDao {
         return null;
     }
 
-    public void updateLastLogin(int userId) throws SQLException {
+    /**
+     * Records a login attempt in one conditional UPDATE. Success clears the
+     * failure counter and lockout and stamps last_login. Failure increments the
+     * counter and locks the account until lockoutUntil on every
+     * maxFailedAttempts-th consecutive failure, so an expired lockout allows a
+     * fresh round of attempts. Parallel failures serialize on the row and are
+     * all counted.
+     *
+     * @return false if the account was locked when the update ran, in which
+     *         case nothing was recorded
+     */
+    public boolean recordLoginOutcome(int userId, boolean success, int maxFailedAttempts, LocalDateTime lockoutUntil)
+            throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
         try (Connection conn = dbManager.getAuthConnection();
-                PreparedStatement stmt = conn.prepareStatement(UPDATE_LAST_LOGIN)) {
-
-            stmt.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
-            stmt.setInt(2, userId);
-            stmt.executeUpdate();
+                PreparedStatement stmt = conn.prepareStatement(success ? RECORD_LOGIN_SUCCESS : RECORD_LOGIN_FAILURE)) {
+            if (success) {
+                stmt.setTimestamp(1, now);
+                stmt.setInt(2, userId);
+                stmt.setTimestamp(3, now);
+            } else {
+                stmt.setInt(1, maxFailedAttempts);
+                stmt.setTimestamp(2, Timestamp.valueOf(lockoutUntil));
+                stmt.setInt(3, userId);
+                stmt.setTimestamp(4, now);
+            }
+            return stmt.executeUpdate() > 0;
         }
     }
 
@@ -111,7 +191,9 @@ public class UserDao {
 
             try (ResultSet rs = stmt.getGeneratedKeys()) {
                 if (rs.next()) {
-                    return rs.getLong(1);
+                    long userId = rs.getLong(1);
+                    cache.invalidateIdentity((int) userId);
+                    return userId;
                 }
             }
         }
@@ -123,6 +205,9 @@ public class UserDao {
                 PreparedStatement stmt = conn.prepareStatement(DELETE_BY_USERNAME)) {
             stmt.setString(1, username);
             stmt.executeUpdate();
+        } finally {
+            // Deletes are rare and keyed by name, so drop every cached identity
+            cache.identities().clear();
         }
     }
 
@@ -148,20 +233,15 @@ public class UserDao {
         }
     }
 
-    public void updateFailedAttempts(int userId, int attempts, LocalDateTime lockoutTime) throws SQLException {
+    /**
+     * Replaces the stored hash for the same password, e.g. after a cost change.
+     * Unlike updatePassword this writes no password history.
+     */
+    public void updatePasswordHash(int userId, String passwordHash) throws SQLException {
         try (Connection conn = dbManager.getAuthConnection();
-                PreparedStatement stmt = conn.prepareStatement(UPDATE_FAILED_ATTEMPTS)) {
-            stmt.setInt(1, attempts);
-            stmt.setTimestamp(2, lockoutTime != null ? Timestamp.valueOf(lockoutTime) : null);
-            stmt.setInt(3, userId);
-            stmt.executeUpdate();
-        }
-    }
-
-    public void resetFailedAttempts(int userId) throws SQLException {
-        try (Connection conn = dbManager.getAuthConnection();
-                PreparedStatement stmt = conn.prepareStatement(RESET_FAILED_ATTEMPTS)) {
-            stmt.setInt(1, userId);
+                PreparedStatement stmt = conn.prepareStatement(UPDATE_PASSWORD_HASH)) {
+            stmt.setString(1, passwordHash);
+            stmt.setInt(2, userId);
             stmt.executeUpdate();
         }
     }
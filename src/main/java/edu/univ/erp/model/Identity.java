@@ -0,0 +1,9 @@
+package edu.univ.erp.model;
+
+/**
+ * Display identity of an account: everything callers need to label a user,
+ * and nothing that authentication or authorization depends on. Identities are
+ * cached, so permission checks must read the role from users_auth instead.
+ */
+public record Identity(int userId, String username, String role) {
+}
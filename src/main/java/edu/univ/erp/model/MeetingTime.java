@@ -0,0 +1,140 @@
+package edu.univ.erp.model;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parsed form of a section's free-form day_time, e.g. "Mon/Wed 10:00-11:30".
+ * Days are a bitmask with Monday in bit 0; times are minutes after midnight.
+ */
+public class MeetingTime {
+    private static final Pattern TIME_RANGE = Pattern.compile(
+            "(\\d{1,2}):(\\d{2})\\s*([AaPp][Mm])?(?:\\s*-\\s*(\\d{1,2}):(\\d{2})\\s*([AaPp][Mm])?)?");
+    private static final int DEFAULT_DURATION_MINUTES = 60;
+
+    private final int daysMask;
+    private final int startMinutes;
+    private final int endMinutes;
+
+    public MeetingTime(int daysMask, int startMinutes, int endMinutes) {
+        this.daysMask = daysMask;
+        this.startMinutes = startMinutes;
+        this.endMinutes = endMinutes;
+    }
+
+    /**
+     * Parses strings such as "Mon 10:00", "Tue/Thu 14:00-15:30" or "Fri 9:00 AM".
+     * A missing end time is taken as one hour after the start. Returns null when
+     * the text has no recognizable day or time.
+     */
+    public static MeetingTime parse(String dayTime) {
+        if (dayTime == null) {
+            return null;
+        }
+        String text = dayTime.trim();
+        int space = text.indexOf(' ');
+        if (space <= 0) {
+            return null;
+        }
+
+        int mask = 0;
+        for (String token : text.substring(0, space).split("[/,&]")) {
+            DayOfWeek day = parseDay(token.trim());
+            if (day == null) {
+                return null;
+            }
+            mask |= maskOf(day);
+        }
+
+        Matcher m = TIME_RANGE.matcher(text.substring(space + 1).trim());
+        if (!m.matches()) {
+            return null;
+        }
+        int start = toMinutes(m.group(1), m.group(2), m.group(3));
+        int end = m.group(4) != null
+                ? toMinutes(m.group(4), m.group(5), m.group(6) != null ? m.group(6) : m.group(3))
+                : start + DEFAULT_DURATION_MINUTES;
+        if (start < 0 || end <= start) {
+            return null;
+        }
+        return new MeetingTime(mask, start, end);
+    }
+
+    public static int maskOf(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+
+    private static DayOfWeek parseDay(String token) {
+        if (token.length() < 3) {
+            return null;
+        }
+        String prefix = token.substring(0, 3).toUpperCase(Locale.ROOT);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().startsWith(prefix)) {
+                return day;
+            }
+        }
+        return null;
+    }
+
+    private static int toMinutes(String hours, String minutes, String meridiem) {
+        int h = Integer.parseInt(hours);
+        int m = Integer.parseInt(minutes);
+        if (m > 59) {
+            return -1;
+        }
+        if (meridiem != null) {
+            if (h < 1 || h > 12) {
+                return -1;
+            }
+            h = h % 12 + (meridiem.equalsIgnoreCase("PM") ? 12 : 0);
+        } else if (h > 23) {
+            return -1;
+        }
+        return h * 60 + m;
+    }
+
+    public int getDaysMask() {
+        return daysMask;
+    }
+
+    public int getStartMinutes() {
+        return startMinutes;
+    }
+
+    public int getEndMinutes() {
+        return endMinutes;
+    }
+
+    public int getDurationMinutes() {
+        return endMinutes - startMinutes;
+    }
+
+    /**
+     * True when both meet on at least one common day and their time ranges
+     * intersect. Back-to-back meetings (one ends as the other starts) do not clash.
+     */
+    public boolean overlaps(MeetingTime other) {
+        return (daysMask & other.daysMask) != 0
+                && startMinutes < other.endMinutes
+                && other.startMinutes < endMinutes;
+    }
+
+    public boolean meetsOn(DayOfWeek day) {
+        return (daysMask & maskOf(day)) != 0;
+    }
+
+    public List<DayOfWeek> getDays() {
+        List<DayOfWeek> days = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (meetsOn(day)) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+}
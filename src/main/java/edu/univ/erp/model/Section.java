@@ -12,9 +12,11 @@ public class Section {
     private String dayTime;
     private String room;
     private int capacity;
+    private int seatsTaken; // live count of ENROLLED rows, maintained by EnrollmentDao
     private int semester;
     private int year;
     private LocalDate dropDeadline;
+    private MeetingTime meetingTime; // parsed from dayTime on first use
 
     public Section() {
     }
@@ -61,6 +63,18 @@ public class Section {
 
     public void setDayTime(String dayTime) {
         this.dayTime = dayTime;
+        this.meetingTime = null;
+    }
+
+    /**
+     * Returns the parsed meeting pattern, or null when dayTime is not in a
+     * recognizable format.
+     */
+    public MeetingTime getMeetingTime() {
+        if (meetingTime == null) {
+            meetingTime = MeetingTime.parse(dayTime);
+        }
+        return meetingTime;
     }
 
     public String getRoom() {
@@ -79,6 +93,14 @@ public class Section {
         this.capacity = capacity;
     }
 
+    public int getSeatsTaken() {
+        return seatsTaken;
+    }
+
+    public void setSeatsTaken(int seatsTaken) {
+        this.seatsTaken = seatsTaken;
+    }
+
     public int getSemester() {
         return semester;
     }
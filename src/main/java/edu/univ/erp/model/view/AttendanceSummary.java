@@ -0,0 +1,44 @@
+package edu.univ.erp.model.view;
+
+public class AttendanceSummary {
+    private final int enrollmentId;
+    private final int sectionId;
+    private final int presentCount;
+    private final int absentCount;
+    private final int lateCount;
+    private final int totalCount;
+
+    public AttendanceSummary(int enrollmentId, int sectionId, int presentCount, int absentCount, int lateCount,
+            int totalCount) {
+        this.enrollmentId = enrollmentId;
+        this.sectionId = sectionId;
+        this.presentCount = presentCount;
+        this.absentCount = absentCount;
+        this.lateCount = lateCount;
+        this.totalCount = totalCount;
+    }
+
+    public int getEnrollmentId() {
+        return enrollmentId;
+    }
+
+    public int getSectionId() {
+        return sectionId;
+    }
+
+    public int getPresentCount() {
+        return presentCount;
+    }
+
+    public int getAbsentCount() {
+        return absentCount;
+    }
+
+    public int getLateCount() {
+        return lateCount;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+}
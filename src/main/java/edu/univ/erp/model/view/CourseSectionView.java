@@ -63,6 +63,10 @@ public class CourseSectionView {
         return instructorName;
     }
 
+    public void setInstructorName(String instructorName) {
+        this.instructorName = instructorName;
+    }
+
     public int getCapacity() {
         return capacity;
     }
@@ -8,11 +8,21 @@ public class EnrollmentView {
     private final String dayTime;
     private final String room;
     private final String status;
+    private final Integer instructorId;
     private final String instructorName;
     private final java.time.LocalDate dropDeadline;
+    private final int semester;
+    private final int year;
 
     public EnrollmentView(int enrollmentId, int sectionId, String courseCode, String courseTitle,
             String dayTime, String room, String status, String instructorName, java.time.LocalDate dropDeadline) {
+        this(enrollmentId, sectionId, courseCode, courseTitle, dayTime, room, status, null, instructorName,
+                dropDeadline, 0, 0);
+    }
+
+    public EnrollmentView(int enrollmentId, int sectionId, String courseCode, String courseTitle,
+            String dayTime, String room, String status, Integer instructorId, String instructorName,
+            java.time.LocalDate dropDeadline, int semester, int year) {
         this.enrollmentId = enrollmentId;
         this.sectionId = sectionId;
         this.courseCode = courseCode;
@@ -20,8 +30,16 @@ public class EnrollmentView {
         this.dayTime = dayTime;
         this.room = room;
         this.status = status;
+        this.instructorId = instructorId;
         this.instructorName = instructorName;
         this.dropDeadline = dropDeadline;
+        this.semester = semester;
+        this.year = year;
+    }
+
+    public EnrollmentView withInstructorName(String name) {
+        return new EnrollmentView(enrollmentId, sectionId, courseCode, courseTitle, dayTime, room, status,
+                instructorId, name, dropDeadline, semester, year);
     }
 
     public int getEnrollmentId() {
@@ -52,6 +70,10 @@ public class EnrollmentView {
         return status;
     }
 
+    public Integer getInstructorId() {
+        return instructorId;
+    }
+
     public String getInstructorName() {
         return instructorName;
     }
@@ -60,6 +82,14 @@ public class EnrollmentView {
         return dropDeadline;
     }
 
+    public int getSemester() {
+        return semester;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
     public String getCourseDisplay() {
         return courseCode + " - " + courseTitle;
     }
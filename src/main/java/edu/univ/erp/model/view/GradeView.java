@@ -3,6 +3,7 @@ package edu.univ.erp.model.view;
 public class GradeView {
     private final String courseCode;
     private final String courseTitle;
+    private final int credits;
     private final int sectionId;
     private final int component;
     private final int score;
@@ -10,8 +11,14 @@ public class GradeView {
 
     public GradeView(String courseCode, String courseTitle, int sectionId, int component,
                      int score, Integer finalScore) {
+        this(courseCode, courseTitle, 0, sectionId, component, score, finalScore);
+    }
+
+    public GradeView(String courseCode, String courseTitle, int credits, int sectionId, int component,
+                     int score, Integer finalScore) {
         this.courseCode = courseCode;
         this.courseTitle = courseTitle;
+        this.credits = credits;
         this.sectionId = sectionId;
         this.component = component;
         this.score = score;
@@ -26,6 +33,10 @@ public class GradeView {
         return courseTitle;
     }
 
+    public int getCredits() {
+        return credits;
+    }
+
     public int getSectionId() {
         return sectionId;
     }
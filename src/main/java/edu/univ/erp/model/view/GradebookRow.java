@@ -54,4 +54,9 @@ public class GradebookRow {
     public Integer getFinalScore() {
         return finalScore;
     }
+
+    public GradebookRow withStudentName(String studentName) {
+        return new GradebookRow(enrollmentId, studentId, studentName, rollNumber, midtermScore, finalExamScore,
+                projectScore, finalScore);
+    }
 }
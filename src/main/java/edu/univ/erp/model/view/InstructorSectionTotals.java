@@ -0,0 +1,8 @@
+package edu.univ.erp.model.view;
+
+/**
+ * Aggregate counts over the sections one instructor teaches, as read in a
+ * single query. Active enrollments are counted across all of those sections.
+ */
+public record InstructorSectionTotals(int sections, int courses, int enrollments, int sectionsWithPendingGrades) {
+}
@@ -0,0 +1,77 @@
+package edu.univ.erp.model.view;
+
+import edu.univ.erp.model.MeetingTime;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A student's active registrations grouped by weekday and ordered by start
+ * time. Each section's day_time is parsed once when the timetable is built.
+ */
+public class Timetable {
+    private final List<Entry> entries;
+    private final Map<DayOfWeek, List<Entry>> entriesByDay;
+    private final List<EnrollmentView> unscheduled;
+    private final int activeCount;
+
+    public record Entry(EnrollmentView enrollment, MeetingTime meetingTime) {
+    }
+
+    private Timetable(List<Entry> entries, Map<DayOfWeek, List<Entry>> entriesByDay,
+            List<EnrollmentView> unscheduled, int activeCount) {
+        this.entries = entries;
+        this.entriesByDay = entriesByDay;
+        this.unscheduled = unscheduled;
+        this.activeCount = activeCount;
+    }
+
+    public static Timetable build(List<EnrollmentView> registrations) {
+        List<Entry> entries = new ArrayList<>();
+        Map<DayOfWeek, List<Entry>> byDay = new EnumMap<>(DayOfWeek.class);
+        List<EnrollmentView> unscheduled = new ArrayList<>();
+        int active = 0;
+
+        for (EnrollmentView view : registrations) {
+            if (!"ENROLLED".equalsIgnoreCase(view.getStatus())) {
+                continue;
+            }
+            active++;
+            MeetingTime time = MeetingTime.parse(view.getDayTime());
+            if (time == null) {
+                unscheduled.add(view);
+                continue;
+            }
+            Entry entry = new Entry(view, time);
+            entries.add(entry);
+            for (DayOfWeek day : time.getDays()) {
+                byDay.computeIfAbsent(day, d -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        Comparator<Entry> byStart = Comparator.comparingInt(e -> e.meetingTime().getStartMinutes());
+        byDay.values().forEach(list -> list.sort(byStart));
+        return new Timetable(entries, byDay, unscheduled, active);
+    }
+
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    public List<Entry> getEntries(DayOfWeek day) {
+        return Collections.unmodifiableList(entriesByDay.getOrDefault(day, Collections.emptyList()));
+    }
+
+    public List<EnrollmentView> getUnscheduled() {
+        return Collections.unmodifiableList(unscheduled);
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+}
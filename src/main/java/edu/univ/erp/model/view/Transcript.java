@@ -0,0 +1,21 @@
+package edu.univ.erp.model.view;
+
+import java.util.List;
+
+public class Transcript {
+    private final List<GradeView> grades;
+    private final double gpa;
+
+    public Transcript(List<GradeView> grades, double gpa) {
+        this.grades = grades;
+        this.gpa = gpa;
+    }
+
+    public List<GradeView> getGrades() {
+        return grades;
+    }
+
+    public double getGpa() {
+        return gpa;
+    }
+}
@@ -1,11 +1,7 @@
 package edu.univ.erp.service;
 
 import edu.univ.erp.dao.EnrollmentDao;
-import edu.univ.erp.dao.SectionDao;
-import edu.univ.erp.dao.UserDao;
 import edu.univ.erp.model.Enrollment;
-import edu.univ.erp.model.Section;
-import edu.univ.erp.model.User;
 
 import java.sql.SQLException;
 import java.util.Optional;
@@ -15,37 +11,26 @@ import java.util.Optional;
  * Centralizes logic for who can access/edit what resources.
  */
 public class AccessControlService {
-    private final SectionDao sectionDao;
     private final EnrollmentDao enrollmentDao;
-    private final UserDao userDao;
 
     public AccessControlService() {
-        this.sectionDao = new SectionDao();
         this.enrollmentDao = new EnrollmentDao();
-        this.userDao = new UserDao();
     }
 
     /**
-     * Checks if a user is an admin.
+     * Checks if a user is an admin, using the user's session context.
      */
     public boolean isAdmin(int userId) throws SQLException {
-        User user = userDao.findById(userId);
-        return user != null && "ADMIN".equalsIgnoreCase(user.getRole());
+        return AuthorizationContext.forUser(userId).isAdmin();
     }
 
     /**
      * Checks if an instructor is allowed to edit a specific section.
      * Allowed if: User is the assigned instructor for the section.
+     * Answered from the sections owned in the user's session context.
      */
     public boolean canEditSection(int userId, int sectionId) throws SQLException {
-        Optional<Section> sectionOpt = sectionDao.findById(sectionId);
-        if (sectionOpt.isEmpty()) {
-            return false; // Section doesn't exist, so can't edit
-        }
-        Section section = sectionOpt.get();
-        // Check if instructorId matches userId
-        // Note: section.getInstructorId() returns Integer
-        return section.getInstructorId() != null && section.getInstructorId() == userId;
+        return AuthorizationContext.forUser(userId).ownsSection(sectionId);
     }
 
     /**
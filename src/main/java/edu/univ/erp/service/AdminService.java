@@ -1,23 +1,29 @@
 package edu.univ.erp.service;
 
+import edu.univ.erp.cache.MaintenanceFlag;
+import edu.univ.erp.config.UnitOfWork;
 import edu.univ.erp.dao.CourseDao;
 import edu.univ.erp.dao.EnrollmentDao;
 import edu.univ.erp.dao.FeeDao;
+import edu.univ.erp.dao.GradeDao;
 import edu.univ.erp.dao.InstructorDao;
 import edu.univ.erp.dao.SectionDao;
 import edu.univ.erp.dao.SettingsDao;
 import edu.univ.erp.dao.StudentDao;
 import edu.univ.erp.dao.UserDao;
+import edu.univ.erp.model.ClassStatistics;
 import edu.univ.erp.model.Course;
 import edu.univ.erp.model.Fee;
 import edu.univ.erp.model.Instructor;
 import edu.univ.erp.model.Section;
 import edu.univ.erp.model.Student;
 import edu.univ.erp.model.User;
-import org.mindrot.jbcrypt.BCrypt;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 public class AdminService {
     private final UserDao userDao;
@@ -42,14 +48,12 @@ public class AdminService {
             throws SQLException, ServiceException {
         validateUsername(username);
         validatePassword(password);
-        String passwordHash = BCrypt.hashpw(password, BCrypt.gensalt(10));
-        try {
+        String passwordHash = PasswordPolicy.getInstance().hash(password);
+        try (UnitOfWork uow = UnitOfWork.begin()) {
             int userId = (int) userDao.insertUser(username, "STUDENT", passwordHash);
             Student student = new Student(userId, rollNumber, program, year);
             studentDao.insertStudent(student);
-        } catch (SQLException ex) {
-            userDao.deleteByUsername(username);
-            throw ex;
+            uow.commit();
         }
     }
 
@@ -57,14 +61,12 @@ public class AdminService {
             throws SQLException, ServiceException {
         validateUsername(username);
         validatePassword(password);
-        String passwordHash = BCrypt.hashpw(password, BCrypt.gensalt(10));
-        try {
+        String passwordHash = PasswordPolicy.getInstance().hash(password);
+        try (UnitOfWork uow = UnitOfWork.begin()) {
             int userId = (int) userDao.insertUser(username, "INSTRUCTOR", passwordHash);
             Instructor instructor = new Instructor(userId, department);
             instructorDao.insertInstructor(instructor);
-        } catch (SQLException ex) {
-            userDao.deleteByUsername(username);
-            throw ex;
+            uow.commit();
         }
     }
 
@@ -100,11 +102,30 @@ public class AdminService {
         section.setSemester(semester);
         section.setYear(year);
         section.setDropDeadline(dropDeadline);
-        return sectionDao.insertSection(section);
+
+        Optional<Section> conflict = sectionDao.findScheduleConflict(section);
+        if (conflict.isPresent()) {
+            Section other = conflict.get();
+            String reason = room != null && room.equalsIgnoreCase(other.getRoom())
+                    ? "Room " + other.getRoom() + " is already booked"
+                    : "The instructor is already teaching";
+            throw new ServiceException(reason + " at that time by section " + other.getSectionId() + " ("
+                    + other.getCourseId() + ", " + other.getDayTime() + ").");
+        }
+        int sectionId = sectionDao.insertSection(section);
+        if (instructorId != null) {
+            AuthorizationContext.invalidate(instructorId);
+        }
+        return sectionId;
     }
 
     public void assignInstructor(int sectionId, Integer instructorId) throws SQLException {
         sectionDao.updateInstructor(sectionId, instructorId);
+        // Both the previous and the new instructor's owned sections change
+        AuthorizationContext.invalidateSection(sectionId);
+        if (instructorId != null) {
+            AuthorizationContext.invalidate(instructorId);
+        }
     }
 
     public void deleteSection(int sectionId) throws SQLException, ServiceException {
@@ -114,6 +135,7 @@ public class AdminService {
             throw new ServiceException("Cannot delete section with " + activeEnrollments + " active enrollments.");
         }
         sectionDao.delete(sectionId);
+        AuthorizationContext.invalidateSection(sectionId);
     }
 
     public List<Course> getAllCourses() throws SQLException {
@@ -133,12 +155,13 @@ public class AdminService {
     }
 
     public boolean isMaintenanceMode() throws SQLException {
-        return settingsDao.isMaintenanceMode();
+        return MaintenanceFlag.getInstance().isMaintenanceMode(settingsDao::isMaintenanceMode);
     }
 
     public void toggleMaintenanceMode(boolean enabled) throws ServiceException {
         try {
             settingsDao.setMaintenanceMode(enabled);
+            MaintenanceFlag.getInstance().update(enabled);
         } catch (SQLException e) {
             throw new ServiceException("Error toggling maintenance mode", e);
         }
@@ -152,14 +175,15 @@ public class AdminService {
         }
     }
 
-    public int countActiveEnrollments() throws SQLException {
-        EnrollmentDao enrollmentDao = new EnrollmentDao();
-        int total = 0;
-        List<Section> sections = getAllSections();
-        for (Section section : sections) {
-            total += enrollmentDao.countActiveEnrollmentsForSection(section.getSectionId());
+    public ClassStatistics getDepartmentStatistics(String department) throws SQLException, ServiceException {
+        if (department == null || department.isBlank()) {
+            throw new ServiceException("Department is required.");
         }
-        return total;
+        return new GradeDao().findDepartmentStatistics(department.trim());
+    }
+
+    public int countActiveEnrollments() throws SQLException {
+        return sectionDao.countAllSeatsTaken();
     }
 
     private void validateUsername(String username) throws SQLException, ServiceException {
@@ -184,6 +208,10 @@ public class AdminService {
         return userDao.findById(userId);
     }
 
+    public Map<Integer, String> getUsernames(Collection<Integer> userIds) throws SQLException {
+        return userDao.findUsernamesByIds(userIds);
+    }
+
     public int getEnrollmentCount(int sectionId) throws SQLException {
         EnrollmentDao enrollmentDao = new EnrollmentDao();
         return enrollmentDao.countActiveEnrollmentsForSection(sectionId);
@@ -2,19 +2,48 @@ package edu.univ.erp.service;
 
 import edu.univ.erp.dao.UserDao;
 import edu.univ.erp.model.User;
-import org.mindrot.jbcrypt.BCrypt;
 
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Handles authentication related logic.
+ * Handles authentication related logic. Logins from the UI go through
+ * {@link #loginAsync}, which runs on the shared {@link LoginExecutor}.
  */
 public class AuthService {
+    private static final int MAX_FAILED_ATTEMPTS = 5;
+    private static final int LOCKOUT_MINUTES = 15;
+
+    /**
+     * Outcome of one login attempt; user is set only on SUCCESS.
+     */
+    public record LoginResult(Status status, User user) {
+        public enum Status {
+            SUCCESS, INVALID_CREDENTIALS, LOCKED
+        }
+
+        public boolean isSuccess() {
+            return status == Status.SUCCESS;
+        }
+    }
+
     private final UserDao userDao;
-    private User authenticatedUser;
+    private final LoginExecutor loginExecutor;
+    private final PasswordPolicy passwordPolicy;
+    private volatile User authenticatedUser;
 
     public AuthService() {
+        this(LoginExecutor.getInstance(), PasswordPolicy.getInstance());
+    }
+
+    public AuthService(LoginExecutor loginExecutor) {
+        this(loginExecutor, PasswordPolicy.getInstance());
+    }
+
+    public AuthService(LoginExecutor loginExecutor, PasswordPolicy passwordPolicy) {
         this.userDao = new UserDao();
+        this.loginExecutor = loginExecutor;
+        this.passwordPolicy = passwordPolicy;
     }
 
     /**
@@ -23,28 +52,41 @@ public class AuthService {
      * @return true if credentials are valid and account is active.
      */
     public boolean login(String username, String password) throws SQLException {
+        LoginResult result = authenticate(username, password);
+        if (result.status() == LoginResult.Status.LOCKED) {
+            throw new SQLException("Account is locked. Please try again later.");
+        }
+        return result.isSuccess();
+    }
+
+    /**
+     * Queues a login attempt on the login executor. The future fails with a
+     * ServiceException when too many attempts are already waiting.
+     */
+    public CompletableFuture<LoginResult> loginAsync(String username, String password) {
+        return loginExecutor.submit(() -> authenticate(username, password));
+    }
+
+    private LoginResult authenticate(String username, String password) throws SQLException {
+        long start = System.nanoTime();
         User user = userDao.findByUsername(username);
+        loginExecutor.record(LoginExecutor.Stage.USER_LOOKUP, System.nanoTime() - start);
         if (user == null) {
-            return false;
+            return new LoginResult(LoginResult.Status.INVALID_CREDENTIALS, null);
         }
         if (!user.isActive()) {
-            return false;
+            return new LoginResult(LoginResult.Status.INVALID_CREDENTIALS, null);
         }
 
-        // Check for lockout
-        if (user.getLockoutTime() != null) {
-            if (user.getLockoutTime().isAfter(java.time.LocalDateTime.now())) {
-                throw new SQLException("Account is locked. Please try again later.");
-            } else {
-                // Lockout expired
-                userDao.resetFailedAttempts(user.getUserId());
-            }
+        // Skip the hash check for accounts that are still locked; the outcome update re-checks atomically
+        if (user.getLockoutTime() != null && user.getLockoutTime().isAfter(java.time.LocalDateTime.now())) {
+            return new LoginResult(LoginResult.Status.LOCKED, null);
         }
 
         String passwordHash = user.getPasswordHash();
         if (passwordHash == null || passwordHash.trim().isEmpty()) {
             System.err.println("Warning: Password hash is null or empty for user: " + username);
-            return false;
+            return new LoginResult(LoginResult.Status.INVALID_CREDENTIALS, null);
         }
 
         // Check if hash looks like a valid BCrypt hash
@@ -52,33 +94,62 @@ public class AuthService {
             System.err.println("Warning: Invalid password hash format for user: " + username
                     + ". Hash should start with $2a$, $2b$, or $2y$");
             System.err.println("Current hash value: " + passwordHash);
-            return false;
+            return new LoginResult(LoginResult.Status.INVALID_CREDENTIALS, null);
         }
 
+        boolean matches;
+        start = System.nanoTime();
         try {
-            if (!BCrypt.checkpw(password, passwordHash)) {
-                // Increment failed attempts
-                int attempts = user.getFailedAttempts() + 1;
-                java.time.LocalDateTime lockoutTime = null;
-                if (attempts >= 5) {
-                    lockoutTime = java.time.LocalDateTime.now().plusMinutes(15);
-                }
-                userDao.updateFailedAttempts(user.getUserId(), attempts, lockoutTime);
-                return false;
-            }
+            matches = passwordPolicy.verify(password, passwordHash);
         } catch (IllegalArgumentException e) {
             // Invalid hash format - treat as authentication failure
             System.err
                     .println("Warning: BCrypt validation failed for user: " + username + ". Error: " + e.getMessage());
             System.err.println("Hash value: " + passwordHash);
-            return false;
+            return new LoginResult(LoginResult.Status.INVALID_CREDENTIALS, null);
+        } finally {
+            loginExecutor.record(LoginExecutor.Stage.HASH_VERIFY, System.nanoTime() - start);
         }
 
-        // Success
-        userDao.resetFailedAttempts(user.getUserId());
+        start = System.nanoTime();
+        boolean recorded;
+        try {
+            recorded = userDao.recordLoginOutcome(user.getUserId(), matches, MAX_FAILED_ATTEMPTS,
+                    java.time.LocalDateTime.now().plusMinutes(LOCKOUT_MINUTES));
+        } finally {
+            loginExecutor.record(LoginExecutor.Stage.LOCKOUT_UPDATE, System.nanoTime() - start);
+        }
+        if (!recorded) {
+            // A parallel attempt locked the account after we read it
+            return new LoginResult(LoginResult.Status.LOCKED, null);
+        }
+        if (!matches) {
+            return new LoginResult(LoginResult.Status.INVALID_CREDENTIALS, null);
+        }
+        if (passwordPolicy.needsRehash(passwordHash)) {
+            rehash(user, password);
+        }
+        AuthorizationContext.open(user.getUserId(), user.getRole());
         this.authenticatedUser = user;
-        userDao.updateLastLogin(user.getUserId());
-        return true;
+        return new LoginResult(LoginResult.Status.SUCCESS, user);
+    }
+
+    /**
+     * Moves a weaker stored hash up to the policy's cost. The plaintext is only
+     * available during login, so this is the one place it can happen.
+     */
+    private void rehash(User user, String password) {
+        long start = System.nanoTime();
+        try {
+            String newHash = passwordPolicy.hash(password);
+            userDao.updatePasswordHash(user.getUserId(), newHash);
+            user.setPasswordHash(newHash);
+        } catch (SQLException e) {
+            // The old hash still works; try again on the next login
+            System.err.println("[WARN] Could not rehash password for user " + user.getUserId() + ": " + e.getMessage());
+        } finally {
+            loginExecutor.record(LoginExecutor.Stage.REHASH, System.nanoTime() - start);
+        }
     }
 
     public User getAuthenticatedUser() {
@@ -86,6 +157,10 @@ public class AuthService {
     }
 
     public void logout() {
+        User user = authenticatedUser;
+        if (user != null) {
+            AuthorizationContext.close(user.getUserId());
+        }
         authenticatedUser = null;
     }
 
@@ -100,7 +175,7 @@ public class AuthService {
             throw new ServiceException("User not found.");
         }
 
-        if (!BCrypt.checkpw(oldPassword, user.getPasswordHash())) {
+        if (!passwordPolicy.verify(oldPassword, user.getPasswordHash())) {
             throw new ServiceException("Incorrect old password.");
         }
 
@@ -111,12 +186,12 @@ public class AuthService {
         // Check password history
         java.util.List<String> recentHashes = userDao.getRecentPasswordHashes(user.getUserId());
         for (String hash : recentHashes) {
-            if (BCrypt.checkpw(newPassword, hash)) {
+            if (passwordPolicy.verify(newPassword, hash)) {
                 throw new ServiceException("You cannot reuse a recent password.");
             }
         }
 
-        String newHash = BCrypt.hashpw(newPassword, BCrypt.gensalt());
+        String newHash = passwordPolicy.hash(newPassword);
         userDao.updatePassword(username, newHash);
     }
 }
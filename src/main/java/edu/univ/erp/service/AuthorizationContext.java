@@ -0,0 +1,130 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.config.UnitOfWork;
+import edu.univ.erp.dao.SectionDao;
+import edu.univ.erp.dao.UserDao;
+import edu.univ.erp.model.User;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * What a signed-in user may touch: their role and, for instructors, the ids of
+ * the sections they teach. A context is built once at login and kept for the
+ * session, so permission checks on the hot path are set lookups that run no
+ * queries.
+ *
+ * Ownership changes made through AdminService invalidate the affected
+ * contexts, which are rebuilt on the next check. Changes made by another
+ * client are picked up once a context is older than MAX_AGE_MILLIS.
+ */
+public final class AuthorizationContext {
+    private static final long MAX_AGE_MILLIS = 10 * 60 * 1000L;
+    private static final Map<Integer, AuthorizationContext> SESSIONS = new ConcurrentHashMap<>();
+    // Bumped by every invalidation so a load that raced with one is not cached
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    private final int userId;
+    private final String role;
+    private final Set<Integer> ownedSectionIds;
+    private final long loadedAt;
+
+    private AuthorizationContext(int userId, String role, Set<Integer> ownedSectionIds) {
+        this.userId = userId;
+        this.role = role;
+        this.ownedSectionIds = Set.copyOf(ownedSectionIds);
+        this.loadedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Builds and stores the context for a user who has just signed in.
+     */
+    public static AuthorizationContext open(int userId, String role) throws SQLException {
+        return load(userId, role);
+    }
+
+    /**
+     * The stored context for userId, rebuilding it if it was invalidated,
+     * expired or never opened on this client.
+     */
+    public static AuthorizationContext forUser(int userId) throws SQLException {
+        AuthorizationContext context = SESSIONS.get(userId);
+        if (context != null && System.currentTimeMillis() - context.loadedAt < MAX_AGE_MILLIS) {
+            return context;
+        }
+        // Read the role from users_auth; cached display identities must not decide permissions
+        User user = new UserDao().findById(userId);
+        return load(userId, user != null ? user.getRole() : null);
+    }
+
+    private static AuthorizationContext load(int userId, String role) throws SQLException {
+        long generation = GENERATION.get();
+        Set<Integer> owned = "INSTRUCTOR".equalsIgnoreCase(role)
+                ? new SectionDao().findSectionIdsByInstructor(userId)
+                : Set.of();
+        AuthorizationContext context = new AuthorizationContext(userId, role, owned);
+        if (GENERATION.get() == generation && !UnitOfWork.isActive()) {
+            SESSIONS.put(userId, context);
+        }
+        return context;
+    }
+
+    /**
+     * Ends the session for userId.
+     */
+    public static void close(int userId) {
+        SESSIONS.remove(userId);
+    }
+
+    /**
+     * Drops the context of one user, e.g. an instructor who was just given a
+     * section.
+     */
+    public static void invalidate(int userId) {
+        GENERATION.incrementAndGet();
+        SESSIONS.remove(userId);
+        UnitOfWork.afterCompletion(() -> {
+            GENERATION.incrementAndGet();
+            SESSIONS.remove(userId);
+        });
+    }
+
+    /**
+     * Drops every context that owns sectionId.
+     */
+    public static void invalidateSection(int sectionId) {
+        GENERATION.incrementAndGet();
+        removeOwners(sectionId);
+        UnitOfWork.afterCompletion(() -> {
+            GENERATION.incrementAndGet();
+            removeOwners(sectionId);
+        });
+    }
+
+    private static void removeOwners(int sectionId) {
+        SESSIONS.values().removeIf(context -> context.ownedSectionIds.contains(sectionId));
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public boolean isAdmin() {
+        return "ADMIN".equalsIgnoreCase(role);
+    }
+
+    public boolean ownsSection(int sectionId) {
+        return ownedSectionIds.contains(sectionId);
+    }
+
+    public Set<Integer> getOwnedSectionIds() {
+        return ownedSectionIds;
+    }
+}
@@ -1,5 +1,7 @@
 package edu.univ.erp.service;
 
+import edu.univ.erp.cache.ReferenceDataCache;
+
 import java.io.File;
 import java.io.IOException;
 import java.util.Map;
@@ -46,6 +48,7 @@ public class BackupService {
         pb.redirectErrorStream(true);
         Process process = pb.start();
         int exitCode = process.waitFor();
+        ReferenceDataCache.getInstance().clear();
 
         if (exitCode != 0) {
             throw new IOException("Restore failed with exit code: " + exitCode);
@@ -0,0 +1,140 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.util.LatencyHistogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs login attempts on a fixed number of threads with a bounded queue, so a
+ * burst of logins cannot spend more CPU on BCrypt than the configured
+ * parallelism. When the queue is full new attempts fail fast with a
+ * ServiceException instead of piling up. Latency is recorded per stage.
+ *
+ * Parallelism defaults to the number of cores and the queue to 64 attempts per
+ * thread; SIS_LOGIN_THREADS and SIS_LOGIN_QUEUE override them.
+ */
+public class LoginExecutor {
+    private static final int QUEUE_PER_THREAD = 64;
+
+    public enum Stage {
+        /** Time spent waiting in the queue for a login thread. */
+        QUEUE,
+        /** Reading the account from users_auth. */
+        USER_LOOKUP,
+        /** BCrypt.checkpw. */
+        HASH_VERIFY,
+        /** Recording the outcome: failed-attempt counter, lockout, last login. */
+        LOCKOUT_UPDATE,
+        /** Re-hashing a stored hash whose cost is below the password policy's. */
+        REHASH,
+        /** Submission to completion. */
+        TOTAL
+    }
+
+    private static LoginExecutor instance;
+
+    private final ThreadPoolExecutor executor;
+    private final Map<Stage, LatencyHistogram> latencies = new EnumMap<>(Stage.class);
+    private final AtomicLong rejected = new AtomicLong();
+
+    public LoginExecutor(int parallelism, int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "sis-login-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        for (Stage stage : Stage.values()) {
+            latencies.put(stage, new LatencyHistogram());
+        }
+    }
+
+    public static synchronized LoginExecutor getInstance() {
+        if (instance == null) {
+            int parallelism = envInt("SIS_LOGIN_THREADS", Runtime.getRuntime().availableProcessors());
+            instance = new LoginExecutor(parallelism, envInt("SIS_LOGIN_QUEUE", parallelism * QUEUE_PER_THREAD));
+        }
+        return instance;
+    }
+
+    private static int envInt(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("[WARN] Ignoring non-numeric " + name + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Queues a login attempt. The returned future fails with a ServiceException
+     * when the queue is full, or with whatever the attempt throws.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> attempt) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long submitted = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                long started = System.nanoTime();
+                record(Stage.QUEUE, started - submitted);
+                T result = null;
+                Throwable failure = null;
+                try {
+                    result = attempt.call();
+                } catch (Throwable e) {
+                    failure = e;
+                }
+                // Record before completing so a caller that joins sees the attempt counted
+                record(Stage.TOTAL, System.nanoTime() - submitted);
+                if (failure == null) {
+                    future.complete(result);
+                } else {
+                    future.completeExceptionally(failure);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            future.completeExceptionally(
+                    new ServiceException("The server is busy handling other sign-ins. Please try again shortly."));
+        }
+        return future;
+    }
+
+    public void record(Stage stage, long nanos) {
+        latencies.get(stage).recordNanos(nanos);
+    }
+
+    public LatencyHistogram.Snapshot getLatency(Stage stage) {
+        return latencies.get(stage).snapshot();
+    }
+
+    public int getParallelism() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
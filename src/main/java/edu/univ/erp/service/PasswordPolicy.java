@@ -0,0 +1,165 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.util.LatencyHistogram;
+import org.mindrot.jbcrypt.BCrypt;
+
+/**
+ * Chooses the BCrypt cost for new password hashes and times every verify.
+ * <p>
+ * At startup the host is benchmarked at the minimum cost and the highest cost
+ * whose projected verify time fits the target is used; each extra cost step
+ * doubles the work. Hashes stored with a lower cost are rehashed on the next
+ * successful login. The cost is chosen per client while users_auth is shared,
+ * so a slower machine never lowers a stronger hash another one wrote.
+ * <p>
+ * The verify-time histogram shows what a login costs on this host, which is
+ * what the login executor should be sized from.
+ * <p>
+ * SIS_BCRYPT_TARGET_MILLIS (default 100), SIS_BCRYPT_MIN_COST (default 10) and
+ * SIS_BCRYPT_MAX_COST (default 14) bound the choice; SIS_BCRYPT_COST pins the
+ * cost and skips the benchmark. Costs are clamped to the 4..30 range BCrypt
+ * accepts.
+ */
+public class PasswordPolicy {
+    private static final int DEFAULT_TARGET_MILLIS = 100;
+    private static final int DEFAULT_MIN_COST = 10;
+    private static final int DEFAULT_MAX_COST = 14;
+    private static final int LOWEST_COST = 4;
+    private static final int HIGHEST_COST = 30;
+    private static final int CALIBRATION_ROUNDS = 3;
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private static PasswordPolicy instance;
+
+    private final int cost;
+    private final long calibratedMicros;
+    private final LatencyHistogram verifyLatency = new LatencyHistogram();
+
+    /**
+     * Uses a fixed cost without benchmarking.
+     */
+    public PasswordPolicy(int cost) {
+        this.cost = cost;
+        this.calibratedMicros = 0;
+    }
+
+    private PasswordPolicy(int cost, long calibratedMicros) {
+        this.cost = cost;
+        this.calibratedMicros = calibratedMicros;
+    }
+
+    public static synchronized PasswordPolicy getInstance() {
+        if (instance == null) {
+            int pinned = envInt("SIS_BCRYPT_COST", 0);
+            if (pinned > 0) {
+                instance = new PasswordPolicy(clampCost(pinned));
+            } else {
+                int minCost = clampCost(envInt("SIS_BCRYPT_MIN_COST", DEFAULT_MIN_COST));
+                int maxCost = Math.max(minCost, clampCost(envInt("SIS_BCRYPT_MAX_COST", DEFAULT_MAX_COST)));
+                instance = calibrate(envInt("SIS_BCRYPT_TARGET_MILLIS", DEFAULT_TARGET_MILLIS), minCost, maxCost);
+            }
+            System.out.println("[AUTH] BCrypt cost " + instance.cost
+                    + (instance.calibratedMicros > 0 ? " (min cost verify " + instance.calibratedMicros + " us)" : ""));
+        }
+        return instance;
+    }
+
+    /**
+     * Benchmarks minCost on this host and returns a policy using the highest
+     * cost up to maxCost whose projected verify time is within targetMillis.
+     */
+    public static PasswordPolicy calibrate(int targetMillis, int minCost, int maxCost) {
+        String hash = BCrypt.hashpw(CALIBRATION_PASSWORD, BCrypt.gensalt(minCost));
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            BCrypt.checkpw(CALIBRATION_PASSWORD, hash);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        long micros = Math.max(1, best / 1_000);
+
+        int chosen = minCost;
+        long projected = micros;
+        while (chosen < maxCost && projected * 2 <= targetMillis * 1_000L) {
+            projected *= 2;
+            chosen++;
+        }
+        return new PasswordPolicy(chosen, micros);
+    }
+
+    private static int envInt(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("[WARN] Ignoring non-numeric " + name + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    private static int clampCost(int cost) {
+        return Math.max(LOWEST_COST, Math.min(HIGHEST_COST, cost));
+    }
+
+    public String hash(String password) {
+        return BCrypt.hashpw(password, BCrypt.gensalt(cost));
+    }
+
+    /**
+     * BCrypt.checkpw, timed into the verify histogram.
+     *
+     * @throws IllegalArgumentException if storedHash is not a BCrypt hash
+     */
+    public boolean verify(String password, String storedHash) {
+        long start = System.nanoTime();
+        try {
+            return BCrypt.checkpw(password, storedHash);
+        } finally {
+            verifyLatency.recordNanos(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * True when storedHash was made with a lower cost than this policy's. Hashes
+     * with a higher cost are left alone: they came from a faster client and are
+     * stronger, and rehashing them down would flip-flop between machines.
+     */
+    public boolean needsRehash(String storedHash) {
+        int storedCost = costOf(storedHash);
+        return storedCost >= 0 && storedCost < cost;
+    }
+
+    /**
+     * Reads the cost from a "$2a$10$..." hash, or -1 if it is not in that form.
+     */
+    static int costOf(String storedHash) {
+        if (storedHash == null || storedHash.length() < 7 || storedHash.charAt(3) != '$'
+                || storedHash.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(storedHash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * Best-of-three verify time measured at the minimum cost during
+     * calibration, or 0 when the cost was pinned.
+     */
+    public long getCalibratedMicros() {
+        return calibratedMicros;
+    }
+
+    public LatencyHistogram.Snapshot getVerifyLatency() {
+        return verifyLatency.snapshot();
+    }
+}
@@ -0,0 +1,109 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.dao.CourseDao;
+import edu.univ.erp.dao.GradeDao;
+import edu.univ.erp.model.Course;
+import edu.univ.erp.model.view.CourseSectionView;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Evaluates course prerequisites against a student's passed-course set, which
+ * is loaded with one query and then tested in memory for every rule.
+ */
+public class PrerequisiteService {
+    private static final int PASSING_SCORE = 50;
+
+    private final CourseDao courseDao;
+    private final GradeDao gradeDao;
+
+    public PrerequisiteService() {
+        this.courseDao = new CourseDao();
+        this.gradeDao = new GradeDao();
+    }
+
+    /**
+     * Returns the first prerequisite of courseCode the student has not passed.
+     * The passed-course set is only loaded when the course has a prerequisite
+     * that exists in the catalog.
+     */
+    public Optional<String> findUnmetPrerequisite(int studentId, String courseCode) throws SQLException {
+        List<String> required = new ArrayList<>();
+        for (String prereqCode : prerequisitesFor(courseCode)) {
+            // Only enforce if the prerequisite course actually exists
+            if (courseDao.findByCode(prereqCode).isPresent()) {
+                required.add(prereqCode);
+            }
+        }
+        if (required.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Set<String> passed = gradeDao.findPassedCourseCodes(studentId, PASSING_SCORE);
+        return required.stream().filter(code -> !passed.contains(code)).findFirst();
+    }
+
+    /**
+     * Returns the ids of the given sections whose prerequisites the student has
+     * met, using one query for the passed-course set and one for the course list
+     * regardless of how many sections are checked.
+     */
+    public Set<Integer> findEligibleSectionIds(int studentId, Collection<CourseSectionView> sections)
+            throws SQLException {
+        Set<String> passed = gradeDao.findPassedCourseCodes(studentId, PASSING_SCORE);
+        Set<String> knownCourses = new HashSet<>();
+        for (Course course : courseDao.findAllCourses()) {
+            knownCourses.add(course.getCode());
+        }
+
+        Set<Integer> eligible = new HashSet<>();
+        for (CourseSectionView section : sections) {
+            boolean met = prerequisitesFor(section.getCourseCode()).stream()
+                    .filter(knownCourses::contains)
+                    .allMatch(passed::contains);
+            if (met) {
+                eligible.add(section.getSectionId());
+            }
+        }
+        return eligible;
+    }
+
+    static List<String> prerequisitesFor(String courseCode) {
+        List<String> prereqs = new ArrayList<>();
+        if (courseCode == null || courseCode.length() < 3) {
+            return prereqs;
+        }
+
+        // Rule 1: Sequence rule (e.g. CS102 requires CS101)
+        if (courseCode.endsWith("2")) {
+            prereqs.add(courseCode.substring(0, courseCode.length() - 1) + "1");
+        }
+
+        // Rule 2: Level progression (e.g. CS201 requires CS101)
+        // Find the first digit
+        int firstDigitIdx = -1;
+        for (int i = 0; i < courseCode.length(); i++) {
+            if (Character.isDigit(courseCode.charAt(i))) {
+                firstDigitIdx = i;
+                break;
+            }
+        }
+
+        if (firstDigitIdx != -1) {
+            char levelChar = courseCode.charAt(firstDigitIdx);
+            if (Character.isDigit(levelChar) && levelChar > '1') {
+                char prevLevelChar = (char) (levelChar - 1);
+                String prereq = courseCode.substring(0, firstDigitIdx) + prevLevelChar
+                        + courseCode.substring(firstDigitIdx + 1);
+                prereqs.add(prereq);
+            }
+        }
+        return prereqs;
+    }
+}
@@ -1,22 +1,35 @@
 package edu.univ.erp.service;
 
+import edu.univ.erp.cache.MaintenanceFlag;
+import edu.univ.erp.cache.ReferenceCache;
+import edu.univ.erp.config.UnitOfWork;
 import edu.univ.erp.dao.*;
 import edu.univ.erp.model.Attendance;
-import edu.univ.erp.model.Course;
 import edu.univ.erp.model.Enrollment;
 import edu.univ.erp.model.Fee;
-import edu.univ.erp.model.Grade;
+import edu.univ.erp.model.Identity;
+import edu.univ.erp.model.MeetingTime;
 import edu.univ.erp.model.Section;
+import edu.univ.erp.model.view.AttendanceSummary;
 import edu.univ.erp.model.view.CourseSectionView;
 import edu.univ.erp.model.view.EnrollmentView;
 import edu.univ.erp.model.view.GradeView;
+import edu.univ.erp.model.view.Timetable;
+import edu.univ.erp.model.view.Transcript;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public class StudentService {
+    private static final int TIMETABLE_CACHE_SIZE = 64;
+    private static final long TIMETABLE_TTL_MILLIS = 5 * 60 * 1000L;
+    private static final int MAX_REGISTRATION_ATTEMPTS = 3;
+
     private final CourseDao courseDao;
     private final SectionDao sectionDao;
     private final EnrollmentDao enrollmentDao = new EnrollmentDao();
@@ -25,55 +38,41 @@ public class StudentService {
     private final AttendanceDao attendanceDao = new AttendanceDao();
     private final UserDao userDao = new UserDao();
 
-    private final SettingsDao settingsDao;
+    private final SettingsDao settingsDao = new SettingsDao();
+    private final MaintenanceFlag maintenanceFlag;
     private final AccessControlService accessControlService;
+    private final PrerequisiteService prerequisiteService;
+    private final ReferenceCache<Integer, Timetable> timetableCache = new ReferenceCache<>(TIMETABLE_CACHE_SIZE,
+            TIMETABLE_TTL_MILLIS);
 
     public StudentService() {
         this.courseDao = new CourseDao();
         this.sectionDao = new SectionDao();
         // this.enrollmentDao = new EnrollmentDao(); // Initialized at declaration
         // this.gradeDao = new GradeDao(); // Initialized at declaration
-        this.settingsDao = new SettingsDao();
+        this.maintenanceFlag = MaintenanceFlag.getInstance();
 
         // this.feeDao = new FeeDao(); // Initialized at declaration
 
         this.accessControlService = new AccessControlService();
+        this.prerequisiteService = new PrerequisiteService();
     }
 
     public List<CourseSectionView> getCourseCatalog() throws SQLException {
-        List<CourseSectionView> catalog = new ArrayList<>();
-        List<Section> sections = sectionDao.findAll();
+        List<CourseSectionView> catalog = sectionDao.findCatalog();
 
-        for (Section section : sections) {
-            Optional<Course> courseOpt = courseDao.findByCode(section.getCourseId());
-            if (courseOpt.isEmpty()) {
-                continue;
+        Set<Integer> instructorIds = new HashSet<>();
+        for (CourseSectionView view : catalog) {
+            if (view.getInstructorId() != null) {
+                instructorIds.add(view.getInstructorId());
             }
-            Course course = courseOpt.get();
-
-            int seatsTaken = enrollmentDao.countActiveEnrollmentsForSection(section.getSectionId());
+        }
 
-            String instructorName = "TBD";
-            if (section.getInstructorId() != null) {
-                edu.univ.erp.model.User instructor = userDao.findById(section.getInstructorId());
-                if (instructor != null) {
-                    instructorName = instructor.getUsername();
-                }
+        Map<Integer, String> instructorNames = userDao.findUsernamesByIds(instructorIds);
+        for (CourseSectionView view : catalog) {
+            if (view.getInstructorId() != null) {
+                view.setInstructorName(instructorNames.getOrDefault(view.getInstructorId(), "TBD"));
             }
-
-            catalog.add(new CourseSectionView(
-                    course.getCode(),
-                    course.getTitle(),
-                    course.getCredits(),
-                    section.getSectionId(),
-                    section.getDayTime(),
-                    section.getRoom(),
-                    section.getInstructorId(),
-                    instructorName,
-                    section.getCapacity(),
-                    seatsTaken,
-                    section.getSemester(),
-                    section.getYear()));
         }
 
         return catalog;
@@ -83,129 +82,104 @@ public class StudentService {
         if (!accessControlService.canAccessStudentData(studentId, studentId)) {
             throw new ServiceException("Access Denied.");
         }
-        ensureSystemWritable();
-
-        Optional<Section> sectionOpt = sectionDao.findById(sectionId);
-        if (sectionOpt.isEmpty()) {
-            throw new ServiceException("Section not found.");
-        }
-        Section section = sectionOpt.get();
-
-        Optional<Enrollment> existingOpt = enrollmentDao.findActiveEnrollment(String.valueOf(studentId), sectionId);
-        if (existingOpt.isPresent()) {
-            throw new ServiceException("You are already enrolled in this section.");
-        }
-
-        int seatsTaken = enrollmentDao.countActiveEnrollmentsForSection(sectionId);
-        if (seatsTaken >= section.getCapacity()) {
-            throw new ServiceException("Section is full. No seats available.");
+        for (int attempt = 1;; attempt++) {
+            try {
+                registerOnce(studentId, sectionId);
+                return;
+            } catch (SQLException e) {
+                // The unit's transaction was rolled back whole, so replay it from the start
+                if (!EnrollmentDao.isDeadlock(e) || UnitOfWork.isActive() || attempt >= MAX_REGISTRATION_ATTEMPTS) {
+                    throw e;
+                }
+            }
         }
-
-        // Check prerequisites
-        checkPrerequisites(studentId, section.getCourseId());
-
-        enrollmentDao.insertEnrollment(studentId, sectionId);
     }
 
-    private void checkPrerequisites(int studentId, String courseCode) throws SQLException, ServiceException {
-        if (courseCode == null || courseCode.length() < 3) {
-            return;
-        }
+    private void registerOnce(int studentId, int sectionId) throws SQLException, ServiceException {
+        // Every check and the reservation share one ERPDB connection
+        try (UnitOfWork uow = UnitOfWork.begin()) {
+            ensureSystemWritable();
 
-        List<String> prereqs = new ArrayList<>();
+            Optional<Section> sectionOpt = sectionDao.findById(sectionId);
+            if (sectionOpt.isEmpty()) {
+                throw new ServiceException("Section not found.");
+            }
+            Section section = sectionOpt.get();
 
-        // Rule 1: Sequence rule (e.g. CS102 requires CS101)
-        if (courseCode.endsWith("2")) {
-            prereqs.add(courseCode.substring(0, courseCode.length() - 1) + "1");
-        }
+            // Check prerequisites
+            checkPrerequisites(studentId, section.getCourseId());
+            checkScheduleClash(studentId, section);
 
-        // Rule 2: Level progression (e.g. CS201 requires CS101)
-        // Find the first digit
-        int firstDigitIdx = -1;
-        for (int i = 0; i < courseCode.length(); i++) {
-            if (Character.isDigit(courseCode.charAt(i))) {
-                firstDigitIdx = i;
-                break;
+            // Capacity check and insert happen atomically against the section's seat counter
+            EnrollmentDao.Reservation reservation = enrollmentDao.reserveSeat(studentId, sectionId);
+            if (reservation == EnrollmentDao.Reservation.ALREADY_ENROLLED) {
+                throw new ServiceException("You are already enrolled in this section.");
             }
-        }
-
-        if (firstDigitIdx != -1) {
-            char levelChar = courseCode.charAt(firstDigitIdx);
-            if (Character.isDigit(levelChar) && levelChar > '1') {
-                char prevLevelChar = (char) (levelChar - 1);
-                String prereq = courseCode.substring(0, firstDigitIdx) + prevLevelChar
-                        + courseCode.substring(firstDigitIdx + 1);
-                prereqs.add(prereq);
+            if (reservation == EnrollmentDao.Reservation.SECTION_FULL) {
+                throw new ServiceException("Section is full. No seats available.");
             }
+            uow.commit();
+        } finally {
+            timetableCache.invalidate(studentId);
         }
+    }
 
-        for (String prereqCode : prereqs) {
-            // Only enforce if the prerequisite course actually exists
-            if (courseDao.findByCode(prereqCode).isEmpty()) {
-                continue;
-            }
-
-            // Check if student has passed the prerequisite
-            boolean hasPassed = false;
-            List<GradeView> grades = getGrades(studentId);
-            for (GradeView grade : grades) {
-                if (grade.getCourseCode().equals(prereqCode) && grade.getFinalScore() != null
-                        && grade.getFinalScore() >= 50) {
-                    hasPassed = true;
-                    break;
-                }
-            }
+    private void checkPrerequisites(int studentId, String courseCode) throws SQLException, ServiceException {
+        Optional<String> unmet = prerequisiteService.findUnmetPrerequisite(studentId, courseCode);
+        if (unmet.isPresent()) {
+            throw new ServiceException(
+                    "Prerequisite not met: You must pass " + unmet.get() + " before registering for " + courseCode);
+        }
+    }
 
-            if (!hasPassed) {
-                throw new ServiceException(
-                        "Prerequisite not met: You must pass " + prereqCode + " before registering for " + courseCode);
+    private void checkScheduleClash(int studentId, Section section) throws SQLException, ServiceException {
+        MeetingTime candidate = section.getMeetingTime();
+        if (candidate == null) {
+            return;
+        }
+        // Read fresh inside the caller's unit: the cached timetable misses registrations made elsewhere
+        Timetable current = Timetable.build(enrollmentDao.findRegistrationViews(studentId));
+        for (Timetable.Entry entry : current.getEntries()) {
+            EnrollmentView other = entry.enrollment();
+            if (other.getSectionId() != section.getSectionId()
+                    && other.getSemester() == section.getSemester()
+                    && other.getYear() == section.getYear()
+                    && entry.meetingTime().overlaps(candidate)) {
+                throw new ServiceException("Schedule clash: " + section.getCourseId() + " (" + section.getDayTime()
+                        + ") overlaps " + other.getCourseCode() + " (" + other.getDayTime() + ").");
             }
         }
     }
 
-    public List<GradeView> getGrades(int studentId) throws SQLException, ServiceException {
+    /**
+     * Returns the ids of catalog sections whose prerequisites the student has
+     * already met.
+     */
+    public Set<Integer> getEligibleSectionIds(int studentId) throws SQLException, ServiceException {
         if (!accessControlService.canAccessStudentData(studentId, studentId)) {
             throw new ServiceException("Access Denied.");
         }
+        return prerequisiteService.findEligibleSectionIds(studentId, sectionDao.findCatalog());
+    }
 
-        List<GradeView> gradeViews = new ArrayList<>();
-        List<Grade> grades = gradeDao.findByStudent(String.valueOf(studentId));
-
-        for (Grade grade : grades) {
-            Optional<Enrollment> enrollmentOpt = enrollmentDao.findById(grade.getEnrollmentId());
-            if (enrollmentOpt.isEmpty()) {
-                continue;
-            }
-
-            Enrollment enrollment = enrollmentOpt.get();
-
-            Optional<Section> sectionOpt = sectionDao.findById(enrollment.getSectionId());
-            if (sectionOpt.isEmpty()) {
-                continue;
-            }
-
-            Optional<Course> courseOpt = courseDao.findByCode(sectionOpt.get().getCourseId());
-            if (courseOpt.isEmpty()) {
-                continue;
-            }
-
-            Course course = courseOpt.get();
-
-            Integer finalScore = grade.getFinalScore();
-
-            gradeViews.add(new GradeView(course.getCode(), course.getTitle(), enrollment.getSectionId(),
-                    grade.getComponent(), grade.getScore(), finalScore));
-        }
-
-        return gradeViews;
+    public List<GradeView> getGrades(int studentId) throws SQLException, ServiceException {
+        return getTranscript(studentId).getGrades();
     }
 
     public double calculateGPA(int studentId) throws SQLException, ServiceException {
+        return getTranscript(studentId).getGpa();
+    }
+
+    /**
+     * Loads a student's grades and computes their credit-weighted GPA from the
+     * same rows, so the whole transcript costs one query.
+     */
+    public Transcript getTranscript(int studentId) throws SQLException, ServiceException {
         if (!accessControlService.canAccessStudentData(studentId, studentId)) {
             throw new ServiceException("Access Denied.");
         }
 
-        List<GradeView> grades = getGrades(studentId);
+        List<GradeView> grades = gradeDao.findTranscript(studentId);
         double totalPoints = 0.0;
         int totalCredits = 0;
 
@@ -214,22 +188,13 @@ public class StudentService {
                 continue; // Skip courses without final grades
             }
 
-            Optional<Course> courseOpt = courseDao.findByCode(grade.getCourseCode());
-            if (courseOpt.isEmpty()) {
-                continue;
-            }
-            int credits = courseOpt.get().getCredits();
-            double points = convertScoreToPoints(grade.getFinalScore());
-
-            totalPoints += points * credits;
+            int credits = grade.getCredits();
+            totalPoints += convertScoreToPoints(grade.getFinalScore()) * credits;
             totalCredits += credits;
         }
 
-        if (totalCredits == 0) {
-            return 0.0;
-        }
-
-        return Math.round((totalPoints / totalCredits) * 100.0) / 100.0;
+        double gpa = totalCredits == 0 ? 0.0 : Math.round((totalPoints / totalCredits) * 100.0) / 100.0;
+        return new Transcript(grades, gpa);
     }
 
     private double convertScoreToPoints(int score) {
@@ -257,11 +222,9 @@ public class StudentService {
 
     public String getStudentUsername(int studentId) throws SQLException, ServiceException {
         edu.univ.erp.model.Student student = getStudent(studentId);
-        edu.univ.erp.model.User user = new edu.univ.erp.dao.UserDao().findById(student.getUserId());
-        if (user == null) {
-            throw new ServiceException("User account not found for student.");
-        }
-        return user.getUsername();
+        return userDao.findIdentityById(student.getUserId())
+                .map(Identity::username)
+                .orElseThrow(() -> new ServiceException("User account not found for student."));
     }
 
     public List<Fee> getFees(int studentId) throws ServiceException {
@@ -284,16 +247,32 @@ public class StudentService {
     }
 
     public List<Attendance> getAttendance(int studentId) throws ServiceException {
+        return getAttendance(studentId, null, null);
+    }
+
+    /**
+     * Returns the student's attendance between from and to inclusive; either
+     * bound may be null to leave that end open.
+     */
+    public List<Attendance> getAttendance(int studentId, java.time.LocalDate from, java.time.LocalDate to)
+            throws ServiceException {
         if (!accessControlService.canAccessStudentData(studentId, studentId)) {
             throw new ServiceException("Access Denied.");
         }
         try {
-            List<Attendance> allAttendance = new ArrayList<>();
-            List<Enrollment> enrollments = enrollmentDao.findByStudent(String.valueOf(studentId));
-            for (Enrollment e : enrollments) {
-                allAttendance.addAll(attendanceDao.getAttendanceByEnrollment(e.getEnrollmentId()));
-            }
-            return allAttendance;
+            return attendanceDao.getAttendanceByStudent(studentId, from, to);
+        } catch (SQLException e) {
+            throw new ServiceException("Error fetching attendance", e);
+        }
+    }
+
+    public List<AttendanceSummary> getAttendanceSummary(int studentId, java.time.LocalDate from,
+            java.time.LocalDate to) throws ServiceException {
+        if (!accessControlService.canAccessStudentData(studentId, studentId)) {
+            throw new ServiceException("Access Denied.");
+        }
+        try {
+            return attendanceDao.summarizeByStudent(studentId, from, to);
         } catch (SQLException e) {
             throw new ServiceException("Error fetching attendance", e);
         }
@@ -303,45 +282,38 @@ public class StudentService {
         if (!accessControlService.canAccessStudentData(studentId, studentId)) {
             throw new ServiceException("Access Denied.");
         }
-        List<EnrollmentView> views = new ArrayList<>();
-        List<Enrollment> enrollments = enrollmentDao.findByStudent(String.valueOf(studentId));
-        System.out.println("DEBUG: StudentService.getCurrentRegistrations - Found " + enrollments.size()
-                + " enrollments for student " + studentId);
+        return nameInstructors(enrollmentDao.findRegistrationViews(studentId));
+    }
 
-        for (Enrollment enrollment : enrollments) {
-            Optional<Section> sectionOpt = sectionDao.findById(enrollment.getSectionId());
-            if (sectionOpt.isEmpty()) {
-                continue;
-            }
+    /**
+     * Returns the student's active sections grouped by weekday. The timetable is
+     * cached per student and rebuilt after they register or drop.
+     */
+    public Timetable getTimetable(int studentId) throws SQLException, ServiceException {
+        if (!accessControlService.canAccessStudentData(studentId, studentId)) {
+            throw new ServiceException("Access Denied.");
+        }
+        return timetableCache.get(studentId,
+                id -> Timetable.build(nameInstructors(enrollmentDao.findRegistrationViewsFromPrimary(id))));
+    }
 
-            Optional<Course> courseOpt = courseDao.findByCode(sectionOpt.get().getCourseId());
-            if (courseOpt.isEmpty()) {
-                continue;
+    private List<EnrollmentView> nameInstructors(List<EnrollmentView> rows) throws SQLException {
+        Set<Integer> instructorIds = new HashSet<>();
+        for (EnrollmentView row : rows) {
+            if (row.getInstructorId() != null) {
+                instructorIds.add(row.getInstructorId());
             }
+        }
+        Map<Integer, String> instructorNames = userDao.findUsernamesByIds(instructorIds);
 
-            Course course = courseOpt.get();
-            Section section = sectionOpt.get();
-
+        List<EnrollmentView> views = new ArrayList<>(rows.size());
+        for (EnrollmentView row : rows) {
             String instructorName = "TBD";
-            if (section.getInstructorId() != null) {
-                edu.univ.erp.model.User instructor = userDao.findById(section.getInstructorId());
-                if (instructor != null) {
-                    instructorName = instructor.getUsername();
-                }
+            if (row.getInstructorId() != null) {
+                instructorName = instructorNames.getOrDefault(row.getInstructorId(), "TBD");
             }
-
-            views.add(new EnrollmentView(
-                    enrollment.getEnrollmentId(),
-                    enrollment.getSectionId(),
-                    course.getCode(),
-                    course.getTitle(),
-                    section.getDayTime(),
-                    section.getRoom(),
-                    enrollment.getStatus(),
-                    instructorName,
-                    section.getDropDeadline()));
+            views.add(row.withInstructorName(instructorName));
         }
-
         return views;
     }
 
@@ -370,10 +342,11 @@ public class StudentService {
         }
 
         enrollmentDao.updateStatus(enrollment.getEnrollmentId(), "DROPPED");
+        timetableCache.invalidate(studentId);
     }
 
     private void ensureSystemWritable() throws SQLException, ServiceException {
-        if (settingsDao.isMaintenanceMode()) {
+        if (maintenanceFlag.isMaintenanceMode(settingsDao::isMaintenanceMode)) {
             throw new ServiceException("System is currently in maintenance mode. Please try again later.");
         }
     }
@@ -2,6 +2,7 @@ package edu.univ.erp.ui;
 
 import edu.univ.erp.model.User;
 import edu.univ.erp.service.AuthService;
+import edu.univ.erp.service.ServiceException;
 import edu.univ.erp.ui.util.UIStyle;
 import net.miginfocom.swing.MigLayout;
 
@@ -9,7 +10,7 @@ import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.ActionListener;
-import java.sql.SQLException;
+import java.util.concurrent.CompletionException;
 
 /**
  * Modern card-based login window with professional ERP design.
@@ -150,30 +151,48 @@ public class LoginFrame extends JFrame {
                 return;
             }
 
-            try {
-                boolean success = authService.login(username, new String(password));
-                if (success) {
-                    User user = authService.getAuthenticatedUser();
-                    showSuccess("Login successful! Redirecting...");
-                    // Small delay for visual feedback
-                    new Thread(() -> {
-                        try {
-                            Thread.sleep(500);
-                            SwingUtilities.invokeLater(() -> openMainFrame(user));
-                        } catch (InterruptedException e) {
-                            SwingUtilities.invokeLater(() -> openMainFrame(user));
-                        }
-                    }).start();
-                } else {
-                    showError("Invalid credentials or inactive account.");
-                }
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-                showError("Database error: " + ex.getMessage());
-            }
+            // BCrypt runs on the login executor; the EDT only updates the form
+            loginButton.setEnabled(false);
+            statusLabel.setText(" ");
+            authService.loginAsync(username, new String(password))
+                    .whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+                        loginButton.setEnabled(true);
+                        handleLoginResult(result, error);
+                    }));
         };
     }
 
+    private void handleLoginResult(AuthService.LoginResult result, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+            if (cause instanceof ServiceException) {
+                showError(cause.getMessage());
+            } else {
+                cause.printStackTrace();
+                showError("Database error: " + cause.getMessage());
+            }
+            return;
+        }
+        switch (result.status()) {
+            case SUCCESS:
+                User user = result.user();
+                showSuccess("Login successful! Redirecting...");
+                // Small delay for visual feedback
+                Timer redirect = new Timer(500, e -> openMainFrame(user));
+                redirect.setRepeats(false);
+                redirect.start();
+                break;
+            case LOCKED:
+                showError("Account is locked. Please try again later.");
+                break;
+            default:
+                showError("Invalid credentials or inactive account.");
+                break;
+        }
+    }
+
     private void openMainFrame(User user) {
         try {
             // Hide login frame first
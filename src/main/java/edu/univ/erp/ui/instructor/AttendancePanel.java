@@ -1,9 +1,5 @@
 package edu.univ.erp.ui.instructor;
 
-import edu.univ.erp.api.instructor.InstructorAPI;
-import edu.univ.erp.api.types.AttendanceRow;
-import edu.univ.erp.api.types.GradebookRow;
-import edu.univ.erp.api.types.SectionRow;
 import edu.univ.erp.api.instructor.InstructorAPI;
 import edu.univ.erp.api.types.AttendanceRow;
 import edu.univ.erp.api.types.GradebookRow;
@@ -15,7 +11,10 @@ import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class AttendancePanel extends JPanel {
     private final InstructorAPI instructorAPI;
@@ -23,6 +22,7 @@ public class AttendancePanel extends JPanel {
     private JComboBox<SectionRow> sectionComboBox;
     private JTable attendanceTable;
     private DefaultTableModel tableModel;
+    private SectionRow loadedSection;
 
     public AttendancePanel(InstructorAPI instructorAPI, String instructorId) {
         this.instructorAPI = instructorAPI;
@@ -122,13 +122,18 @@ public class AttendancePanel extends JPanel {
 
             List<GradebookRow> rows = gbResponse.getData();
 
-            for (GradebookRow row : rows) {
-                // Check if attendance exists
-                var attResponse = instructorAPI.getAttendance(row.enrollmentId(), date);
-                String status = "PRESENT"; // Default
-                if (attResponse.isSuccess() && attResponse.getData() != null) {
-                    status = attResponse.getData().status();
+            var attResponse = instructorAPI.getSectionAttendance(Integer.parseInt(instructorId),
+                    section.sectionId(), date);
+            Map<Integer, String> recorded = new HashMap<>();
+            if (attResponse.isSuccess()) {
+                for (AttendanceRow att : attResponse.getData()) {
+                    recorded.put(att.enrollmentId(), att.status());
                 }
+            }
+            loadedSection = section;
+
+            for (GradebookRow row : rows) {
+                String status = recorded.getOrDefault(row.enrollmentId(), "PRESENT"); // Default
 
                 tableModel.addRow(new Object[] {
                         row.enrollmentId(),
@@ -144,26 +149,27 @@ public class AttendancePanel extends JPanel {
     }
 
     private void saveAttendance(String dateStr) {
+        if (loadedSection == null)
+            return;
+
         try {
             LocalDate date = LocalDate.parse(dateStr);
+            List<AttendanceRow> roster = new ArrayList<>();
             int rows = tableModel.getRowCount();
             for (int i = 0; i < rows; i++) {
                 int enrollmentId = (int) tableModel.getValueAt(i, 0);
                 String status = (String) tableModel.getValueAt(i, 3);
+                roster.add(new AttendanceRow(0, enrollmentId, date, status));
+            }
 
-                // We need attendanceId if updating, but API markAttendance might handle upsert
-                // based on enrollmentId+date?
-                // The API markAttendance takes AttendanceRow which has attendanceId.
-                // If it's new, attendanceId might be 0.
-                // Let's check if we need to fetch existing to get ID or if DAO handles it.
-                // AttendanceDao.upsert uses enrollmentId and date to find existing or insert.
-                // So attendanceId 0 is fine if we are just passing data.
-                // But wait, AttendanceRow is a record.
-
-                AttendanceRow attRow = new AttendanceRow(0, enrollmentId, date, status);
-                instructorAPI.markAttendance(attRow);
+            // The whole roster is upserted on enrollment and date in one batch
+            var response = instructorAPI.markSectionAttendance(Integer.parseInt(instructorId),
+                    loadedSection.sectionId(), date, roster);
+            if (response.isSuccess()) {
+                JOptionPane.showMessageDialog(this, "Attendance saved successfully!");
+            } else {
+                JOptionPane.showMessageDialog(this, "Error saving attendance: " + response.getMessage());
             }
-            JOptionPane.showMessageDialog(this, "Attendance saved successfully!");
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, "Error saving attendance: " + e.getMessage());
         }
@@ -112,13 +112,14 @@ public class StudentDashboardPanel extends DashboardPanel {
             gpaCard.setValue(String.format("%.2f", gpa));
 
             // Update Attendance
-            java.util.List<edu.univ.erp.model.Attendance> attendanceList = studentService
-                    .getAttendance(Integer.parseInt(studentId));
-            if (attendanceList.isEmpty()) {
+            java.util.List<edu.univ.erp.model.view.AttendanceSummary> summaries = studentService
+                    .getAttendanceSummary(Integer.parseInt(studentId), null, null);
+            int present = summaries.stream().mapToInt(a -> a.getPresentCount()).sum();
+            int total = summaries.stream().mapToInt(a -> a.getTotalCount()).sum();
+            if (total == 0) {
                 attendanceCard.setValue("N/A");
             } else {
-                long present = attendanceList.stream().filter(a -> "PRESENT".equalsIgnoreCase(a.getStatus())).count();
-                int percentage = (int) ((present * 100) / attendanceList.size());
+                int percentage = (present * 100) / total;
                 attendanceCard.setValue(percentage + "%");
             }
 
@@ -1,6 +1,7 @@
 package edu.univ.erp.ui.student;
 
 import edu.univ.erp.model.view.EnrollmentView;
+import edu.univ.erp.model.view.Timetable;
 import edu.univ.erp.service.ServiceException;
 import edu.univ.erp.service.StudentService;
 import edu.univ.erp.ui.util.UIStyle;
@@ -10,11 +11,8 @@ import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.Comparator;
+import java.time.DayOfWeek;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 public class TimetablePanel extends AbstractStudentPanel {
     private final JTabbedPane tabbedPane;
@@ -48,32 +46,20 @@ public class TimetablePanel extends AbstractStudentPanel {
     @Override
     public void refreshData() {
         try {
-            List<EnrollmentView> enrollments = studentService.getCurrentRegistrations(Integer.parseInt(studentId));
-
-            // Filter only enrolled courses
-            List<EnrollmentView> activeEnrollments = enrollments.stream()
-                    .filter(e -> "ENROLLED".equalsIgnoreCase(e.getStatus()))
-                    .collect(Collectors.toList());
+            Timetable timetable = studentService.getTimetable(Integer.parseInt(studentId));
 
             tabbedPane.removeAll();
 
-            String[] days = { "Mon", "Tue", "Wed", "Thu", "Fri" };
+            DayOfWeek[] days = { DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY,
+                    DayOfWeek.FRIDAY };
             String[] fullDays = { "Monday", "Tuesday", "Wednesday", "Thursday", "Friday" };
 
             for (int i = 0; i < days.length; i++) {
-                String dayShort = days[i];
-                String dayFull = fullDays[i];
-
-                List<EnrollmentView> dayClasses = activeEnrollments.stream()
-                        .filter(e -> e.getDayTime() != null && e.getDayTime().startsWith(dayShort))
-                        .sorted(Comparator.comparing(EnrollmentView::getDayTime)) // Simple string sort for now
-                        .collect(Collectors.toList());
-
-                tabbedPane.addTab(dayFull, createDayPanel(dayClasses));
+                tabbedPane.addTab(fullDays[i], createDayPanel(timetable.getEntries(days[i])));
             }
 
-            statusLabel.setText(activeEnrollments.isEmpty() ? "No classes scheduled"
-                    : activeEnrollments.size() + " active courses");
+            statusLabel.setText(timetable.getActiveCount() == 0 ? "No classes scheduled"
+                    : timetable.getActiveCount() + " active courses");
 
         } catch (SQLException | ServiceException ex) {
             statusLabel.setText("Error: " + ex.getMessage());
@@ -81,7 +67,7 @@ public class TimetablePanel extends AbstractStudentPanel {
         }
     }
 
-    private JScrollPane createDayPanel(List<EnrollmentView> classes) {
+    private JScrollPane createDayPanel(List<Timetable.Entry> classes) {
         JPanel container = new JPanel(new MigLayout("fillx, wrap, insets 20", "[grow]", "[]12[]"));
         container.setOpaque(false);
 
@@ -94,8 +80,8 @@ public class TimetablePanel extends AbstractStudentPanel {
             emptyState.add(emptyLabel);
             container.add(emptyState, "growx");
         } else {
-            for (EnrollmentView view : classes) {
-                container.add(createTimelineItem(view), "growx");
+            for (Timetable.Entry entry : classes) {
+                container.add(createTimelineItem(entry), "growx");
             }
         }
 
@@ -106,7 +92,8 @@ public class TimetablePanel extends AbstractStudentPanel {
         return scroll;
     }
 
-    private JPanel createTimelineItem(EnrollmentView view) {
+    private JPanel createTimelineItem(Timetable.Entry entry) {
+        EnrollmentView view = entry.enrollment();
         JPanel shadowWrapper = UIStyle.createDropShadowPanel();
 
         // Create content panel with proper layout
@@ -125,7 +112,7 @@ public class TimetablePanel extends AbstractStudentPanel {
         timeLabel.setForeground(UIStyle.ACCENT_BLUE);
         timePanel.add(timeLabel, "wrap");
 
-        JLabel durationLabel = new JLabel("1 hr");
+        JLabel durationLabel = new JLabel(formatDuration(entry.meetingTime().getDurationMinutes()));
         durationLabel.setFont(UIStyle.FONT_SMALL);
         durationLabel.setForeground(UIStyle.TEXT_MUTED);
         timePanel.add(durationLabel);
@@ -162,4 +149,13 @@ public class TimetablePanel extends AbstractStudentPanel {
 
         return shadowWrapper;
     }
+
+    private String formatDuration(int minutes) {
+        int hours = minutes / 60;
+        int rest = minutes % 60;
+        if (hours == 0) {
+            return rest + " min";
+        }
+        return hours + " hr" + (rest > 0 ? " " + rest + " min" : "");
+    }
 }
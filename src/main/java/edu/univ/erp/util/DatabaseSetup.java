@@ -1,6 +1,7 @@
 package edu.univ.erp.util;
 
 import edu.univ.erp.config.DatabaseManager;
+import edu.univ.erp.dao.SectionDao;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -18,6 +19,10 @@ public class DatabaseSetup {
             System.out.println("Initializing databases...");
             initAuthDb();
             initErpDb();
+            int filled = new SectionDao().backfillMeetingTimes();
+            if (filled > 0) {
+                System.out.println("Parsed meeting times for " + filled + " sections.");
+            }
             System.out.println("Database initialization complete.");
         } catch (Exception e) {
             System.err.println("Database initialization failed: " + e.getMessage());
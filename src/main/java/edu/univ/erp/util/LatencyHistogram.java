@@ -0,0 +1,79 @@
+package edu.univ.erp.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with fixed, roughly logarithmic buckets from
+ * 50 microseconds to 10 seconds. Percentiles are reported as the upper bound
+ * of the bucket they fall in, which is precise enough for dashboards and logs.
+ */
+public class LatencyHistogram {
+    private static final long[] BUCKET_BOUNDS_MICROS = {
+            50, 100, 250, 500,
+            1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000,
+            1_000_000, 2_500_000, 5_000_000, 10_000_000
+    };
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_BOUNDS_MICROS.length + 1);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sumMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1_000);
+    }
+
+    public void recordMicros(long micros) {
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_MICROS.length && micros > BUCKET_BOUNDS_MICROS[bucket]) {
+            bucket++;
+        }
+        counts.incrementAndGet(bucket);
+        total.incrementAndGet();
+        sumMicros.addAndGet(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public Snapshot snapshot() {
+        long[] bucketCounts = new long[counts.length()];
+        for (int i = 0; i < bucketCounts.length; i++) {
+            bucketCounts[i] = counts.get(i);
+        }
+        return new Snapshot(bucketCounts, total.get(), sumMicros.get(), maxMicros.get());
+    }
+
+    /**
+     * Upper bounds of each bucket in microseconds. The last bucket, one past the
+     * end of this array, is unbounded.
+     */
+    public static long[] getBucketBoundsMicros() {
+        return BUCKET_BOUNDS_MICROS.clone();
+    }
+
+    public record Snapshot(long[] bucketCounts, long count, long sumMicros, long maxMicros) {
+
+        public double meanMicros() {
+            return count == 0 ? 0 : (double) sumMicros / count;
+        }
+
+        /**
+         * Returns the upper bound, in microseconds, of the bucket holding the given
+         * percentile (0-100); the overflow bucket reports the observed maximum.
+         */
+        public long percentileMicros(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(count * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                seen += bucketCounts[i];
+                if (seen >= Math.max(rank, 1)) {
+                    return i < BUCKET_BOUNDS_MICROS.length ? Math.min(BUCKET_BOUNDS_MICROS[i], maxMicros) : maxMicros;
+                }
+            }
+            return maxMicros;
+        }
+    }
+}
@@ -24,6 +24,12 @@ INSERT INTO enrollments (student_id, section_id, status) VALUES
 (1001, 1, 'ENROLLED'),
 (1001, 3, 'ENROLLED');
 
+-- Keep the sections seat counter in step with the enrollments inserted above
+UPDATE sections s
+SET s.seats_taken = (SELECT COUNT(*) FROM enrollments e WHERE e.section_id = s.section_id AND e.status = 'ENROLLED');
+
+-- days_mask/start_minute/end_minute are parsed from day_time by the application at startup
+
 -- Grades for Student 1001 in CS101 (Section 1)
 -- Components: 1=Midterm, 2=Final, 3=Assignment (Example mapping)
 INSERT INTO grades (enrollment_id, component, score, final_score) VALUES 
@@ -30,12 +30,18 @@ CREATE TABLE IF NOT EXISTS sections (
     course_id VARCHAR(20) NOT NULL,
     instructor_id INT,
     day_time VARCHAR(50),
+    days_mask INT NULL, -- bit 0 = Monday ... bit 6 = Sunday, parsed from day_time
+    start_minute INT NULL, -- minutes after midnight
+    end_minute INT NULL,
     room VARCHAR(50),
     capacity INT,
+    seats_taken INT NOT NULL DEFAULT 0,
     semester INT,
     year INT,
     drop_deadline DATE NULL,
     PRIMARY KEY (section_id),
+    INDEX idx_sections_instructor (instructor_id),
+    INDEX idx_sections_room_term (room, year, semester),
     FOREIGN KEY (course_id) REFERENCES courses(code) ON DELETE RESTRICT ON UPDATE CASCADE,
     FOREIGN KEY (instructor_id) REFERENCES instructors(user_id) ON DELETE SET NULL ON UPDATE CASCADE
 );
@@ -61,7 +67,7 @@ CREATE TABLE IF NOT EXISTS grades (
 );
 
 CREATE TABLE IF NOT EXISTS settings (
-    id INT PRIMARY KEY DEFAULT 1,
+    id INT DEFAULT 1 PRIMARY KEY,
     maintenance BOOLEAN DEFAULT FALSE,
     CONSTRAINT check_single_row CHECK (id = 1)
 );
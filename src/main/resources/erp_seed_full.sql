@@ -60,6 +60,12 @@ INSERT IGNORE INTO enrollments (enrollment_id, student_id, section_id, status) V
 (1, 1001, 1, 'ENROLLED'),
 (2, 1001, 2, 'ENROLLED');
 
+-- Keep the sections seat counter in step with the enrollments inserted above
+UPDATE sections s
+SET s.seats_taken = (SELECT COUNT(*) FROM enrollments e WHERE e.section_id = s.section_id AND e.status = 'ENROLLED');
+
+-- days_mask/start_minute/end_minute are parsed from day_time by the application at startup
+
 -- 6. Grades
 -- Grades for Enrollment 1 (CS101)
 -- Components: 1=Midterm, 2=Final, 3=Project
@@ -0,0 +1,26 @@
+-- Migration Script v3: Add a live seat counter to sections
+-- Registration reserves a seat with a single conditional UPDATE on this column
+-- instead of counting enrollments, so it must match the ENROLLED rows exactly.
+
+-- Usage: mariadb -u root -p ERPDB < migration_v3.sql
+
+USE ERPDB;
+
+-- Step 1: Add the counter column
+ALTER TABLE sections
+    ADD COLUMN IF NOT EXISTS seats_taken INT NOT NULL DEFAULT 0 AFTER capacity;
+
+-- Step 2: Backfill from existing active enrollments
+UPDATE sections s
+SET s.seats_taken = (
+    SELECT COUNT(*) FROM enrollments e
+    WHERE e.section_id = s.section_id AND e.status = 'ENROLLED'
+);
+
+-- Step 3: Verify changes
+SELECT 'Migration completed successfully!' AS status;
+
+-- Verification query (commented out - uncomment to run)
+-- SELECT s.section_id, s.seats_taken, COUNT(e.enrollment_id) AS enrolled
+-- FROM sections s LEFT JOIN enrollments e ON e.section_id = s.section_id AND e.status = 'ENROLLED'
+-- GROUP BY s.section_id, s.seats_taken HAVING s.seats_taken <> enrolled;
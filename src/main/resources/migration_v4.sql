@@ -0,0 +1,19 @@
+-- Migration Script v4: Index sections by instructor
+-- Instructor screens (sections list, gradebook, attendance, dashboard) look up
+-- sections by instructor_id; this index keeps that lookup independent of the
+-- total number of sections.
+
+-- Usage: mariadb -u root -p ERPDB < migration_v4.sql
+
+USE ERPDB;
+
+-- Step 1: Add the index
+-- Note: InnoDB may already hold an implicit index for the instructor foreign key;
+-- the named index replaces it as the one backing the foreign key.
+CREATE INDEX IF NOT EXISTS idx_sections_instructor ON sections (instructor_id);
+
+-- Step 2: Verify changes
+SELECT 'Migration completed successfully!' AS status;
+
+-- Verification query (commented out - uncomment to run)
+-- EXPLAIN SELECT section_id FROM sections WHERE instructor_id = 1002;
@@ -0,0 +1,29 @@
+-- Migration Script v5: Store each section's parsed meeting pattern
+-- day_time stays the display text; days_mask (Monday = 1, Tuesday = 2, ... Sunday = 64)
+-- and start_minute/end_minute (minutes after midnight) let the room and instructor
+-- double-booking check run as an indexed range query.
+
+-- Usage: mariadb -u root -p ERPDB < migration_v5.sql
+
+USE ERPDB;
+
+-- Step 1: Add the meeting pattern columns
+ALTER TABLE sections
+    ADD COLUMN IF NOT EXISTS days_mask INT NULL AFTER day_time,
+    ADD COLUMN IF NOT EXISTS start_minute INT NULL AFTER days_mask,
+    ADD COLUMN IF NOT EXISTS end_minute INT NULL AFTER start_minute;
+
+-- Step 2: Index room bookings by term
+CREATE INDEX IF NOT EXISTS idx_sections_room_term ON sections (room, year, semester);
+
+-- Step 3: Backfill
+-- Existing rows are filled in by the application at startup (DatabaseSetup ->
+-- SectionDao.backfillMeetingTimes) with the same MeetingTime parser that writes
+-- new sections, so every format the app accepts, including "Fri 9:00 AM", is
+-- covered. Rows it cannot parse keep NULL and are skipped by the clash checks.
+
+-- Step 4: Verify changes
+SELECT 'Migration completed successfully!' AS status;
+
+-- Verification query (commented out - uncomment to run)
+-- SELECT section_id, day_time, days_mask, start_minute, end_minute FROM sections WHERE days_mask IS NULL;
@@ -0,0 +1,69 @@
+package edu.univ.erp.cache;
+
+import edu.univ.erp.config.DatabaseManager;
+import edu.univ.erp.dao.SettingsDao;
+import edu.univ.erp.util.DatabaseSetup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MaintenanceFlagTest {
+
+    @BeforeAll
+    public static void setUp() throws Exception {
+        DatabaseSetup.init();
+    }
+
+    private static final MaintenanceFlag.Loader LOADER = new SettingsDao()::isMaintenanceMode;
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        writeFlagDirectly(false);
+    }
+
+    // Simulates another client flipping the flag, bypassing this process's push
+    private static void writeFlagDirectly(boolean maintenance) throws SQLException {
+        try (Connection conn = DatabaseManager.getInstance().getErpConnection();
+                PreparedStatement stmt = conn.prepareStatement("UPDATE settings SET maintenance = ? WHERE id = 1")) {
+            stmt.setBoolean(1, maintenance);
+            stmt.executeUpdate();
+        }
+    }
+
+    @Test
+    public void testCachedFlagRunsNoQueriesWithinInterval() throws SQLException {
+        MaintenanceFlag flag = new MaintenanceFlag(60_000);
+        assertFalse(flag.isMaintenanceMode(LOADER));
+
+        DatabaseManager db = DatabaseManager.getInstance();
+        long erpBefore = db.getErpCheckoutCount();
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(flag.isMaintenanceMode(LOADER));
+        }
+        assertEquals(0, db.getErpCheckoutCount() - erpBefore);
+
+        flag.update(true);
+        assertTrue(flag.isMaintenanceMode(LOADER));
+        assertEquals(0, db.getErpCheckoutCount() - erpBefore);
+    }
+
+    @Test
+    public void testExternalChangeIsSeenAfterRefreshInterval() throws Exception {
+        MaintenanceFlag flag = new MaintenanceFlag(50);
+        assertFalse(flag.isMaintenanceMode(LOADER));
+
+        writeFlagDirectly(true);
+        Thread.sleep(100);
+        assertTrue(flag.isMaintenanceMode(LOADER));
+
+        writeFlagDirectly(false);
+        flag.invalidate();
+        assertFalse(flag.isMaintenanceMode(LOADER));
+    }
+}
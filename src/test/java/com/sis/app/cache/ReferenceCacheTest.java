@@ -0,0 +1,86 @@
+package edu.univ.erp.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReferenceCacheTest {
+
+    @Test
+    public void testReadThroughCountsHitsAndMisses() throws SQLException {
+        ReferenceCache<Integer, String> cache = new ReferenceCache<>(10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("v1", cache.get(1, key -> "v" + key + (loads.incrementAndGet() > 1 ? "!" : "")));
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(4, cache.getHitCount());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedBeyondMaxSize() throws SQLException {
+        ReferenceCache<Integer, Integer> cache = new ReferenceCache<>(2, 60_000);
+        cache.get(1, key -> key);
+        cache.get(2, key -> key);
+        cache.get(1, key -> key);
+        cache.get(3, key -> key);
+
+        assertEquals(2, cache.size());
+        long misses = cache.getMissCount();
+        cache.get(1, key -> key);
+        assertEquals(misses, cache.getMissCount());
+        cache.get(2, key -> key);
+        assertEquals(misses + 1, cache.getMissCount());
+    }
+
+    @Test
+    public void testExpiredEntriesAreReloaded() throws Exception {
+        ReferenceCache<Integer, Integer> cache = new ReferenceCache<>(10, 20);
+        cache.get(1, key -> key);
+        Thread.sleep(50);
+        cache.get(1, key -> key);
+
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testInvalidateDuringLoadDoesNotStoreStaleValue() throws SQLException {
+        ReferenceCache<Integer, String> cache = new ReferenceCache<>(10, 60_000);
+        assertEquals("stale", cache.get(1, key -> {
+            cache.invalidate(key);
+            return "stale";
+        }));
+
+        assertEquals("fresh", cache.get(1, key -> "fresh"));
+        assertEquals("fresh", cache.get(1, key -> "other"));
+    }
+
+    @Test
+    public void testBulkLoadFetchesOnlyMisses() throws SQLException {
+        ReferenceCache<Integer, String> cache = new ReferenceCache<>(10, 60_000);
+        List<List<Integer>> batches = new ArrayList<>();
+        ReferenceCache.BulkLoader<Integer, String> loader = keys -> {
+            batches.add(new ArrayList<>(keys));
+            return keys.stream().filter(k -> k != 4).collect(Collectors.toMap(k -> k, k -> "u" + k));
+        };
+
+        cache.get(1, key -> "u1");
+        Map<Integer, String> names = cache.getAll(List.of(1, 2, 3, 4, 2), loader);
+
+        assertEquals(Map.of(1, "u1", 2, "u2", 3, "u3"), names);
+        assertEquals(List.of(List.of(2, 3, 4)), batches);
+
+        cache.getAll(List.of(2, 3), loader);
+        assertEquals(1, batches.size());
+    }
+}
@@ -0,0 +1,67 @@
+package edu.univ.erp.config;
+
+import edu.univ.erp.util.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatabaseConfigTest {
+
+    @Test
+    public void testClasspathDefaultsAndLegacyEnvironmentNames() {
+        DatabaseConfig config = DatabaseConfig.load(Map.of(
+                "SIS_DB_HOST", "db.internal",
+                "SIS_DB_USER", "sis"));
+
+        assertEquals("db.internal", config.get("db.host"));
+        assertEquals("sis", config.get("db.user"));
+        assertEquals("3306", config.get("db.port"));
+        assertEquals("10", config.getPoolSetting("erp", "maximumPoolSize"));
+
+        Properties driver = config.getDriverOptions();
+        assertEquals("true", driver.getProperty("useBulkStmts"));
+        assertEquals("250", driver.getProperty("prepStmtCacheSize"));
+    }
+
+    @Test
+    public void testConfigFileAndPerPoolOverrides() throws IOException {
+        Path file = Files.createTempFile("sis-db", ".properties");
+        try {
+            Files.writeString(file, "pool.connectionTimeout=5000\nerp.pool.maximumPoolSize=25\n");
+            DatabaseConfig config = DatabaseConfig.load(Map.of(
+                    "SIS_DB_CONFIG", file.toString(),
+                    "SIS_AUTH_POOL_MAXIMUMPOOLSIZE", "4",
+                    "SIS_DRIVER_PREPSTMTCACHESIZE", "500"));
+
+            assertEquals("25", config.getPoolSetting("erp", "maximumPoolSize"));
+            assertEquals("4", config.getPoolSetting("auth", "maximumPoolSize"));
+            assertEquals("5000", config.getPoolSetting("auth", "connectionTimeout"));
+            assertEquals("5000", config.getPoolSetting("erp", "connectionTimeout"));
+            assertEquals("500", config.getDriverOptions().getProperty("prepStmtCacheSize"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testLatencyHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.recordMicros(80);
+        }
+        histogram.recordNanos(3_000_000_000L);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100, snapshot.count());
+        assertEquals(100, snapshot.percentileMicros(50));
+        assertEquals(100, snapshot.percentileMicros(99));
+        assertEquals(3_000_000, snapshot.percentileMicros(100));
+        assertEquals(3_000_000, snapshot.maxMicros());
+    }
+}
@@ -0,0 +1,110 @@
+package edu.univ.erp.config;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Uses a second schema on the local server as the "replica" so routing can be
+ * observed with SELECT DATABASE().
+ */
+public class ReadReplicaRoutingTest {
+
+    private static final String REPLICA_SCHEMA = "ERPDB_REPLICA";
+
+    private static DatabaseManager manager;
+
+    @BeforeAll
+    public static void setUp() throws SQLException {
+        assumeTrue(DatabaseManager.getInstance().getBackend() == DatabaseBackend.MARIADB,
+                "Replica routing needs a MariaDB server");
+        try (Connection conn = DatabaseManager.getInstance().getErpConnection();
+                Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE DATABASE IF NOT EXISTS " + REPLICA_SCHEMA);
+        }
+
+        Map<String, String> env = new HashMap<>(System.getenv());
+        env.put("SIS_REPLICA_HOST", DatabaseConfig.load().get("db.host"));
+        env.put("SIS_REPLICA_DATABASE", REPLICA_SCHEMA);
+        env.put("SIS_REPLICA_READYOURWRITESMILLIS", "300");
+        env.put("SIS_METRICS_LOGINTERVALSECONDS", "0");
+        manager = new DatabaseManager(DatabaseConfig.load(env));
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (manager != null) {
+            manager.close();
+        }
+    }
+
+    @Test
+    public void testReadsGoToReplicaUntilThisThreadWrites() throws Exception {
+        assertTrue(manager.isReplicaConfigured());
+        assertEquals(REPLICA_SCHEMA, currentSchema(manager.getErpReadConnection()));
+
+        // A primary checkout counts as a write; this thread now reads its own writes
+        manager.getErpConnection().close();
+        assertEquals("ERPDB", currentSchema(manager.getErpReadConnection()));
+
+        // Other threads are unaffected
+        String otherThread = CompletableFuture.supplyAsync(() -> {
+            try {
+                return currentSchema(manager.getErpReadConnection());
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }).get();
+        assertEquals(REPLICA_SCHEMA, otherThread);
+
+        Thread.sleep(400);
+        assertEquals(REPLICA_SCHEMA, currentSchema(manager.getErpReadConnection()));
+        assertTrue(manager.getErpReplicaCheckoutCount() >= 3);
+        assertTrue(manager.getErpReplicaPoolMetrics().isPresent());
+    }
+
+    @Test
+    public void testPrimaryReadsDoNotKeepLaterReadsOnThePrimary() throws Exception {
+        // A fresh thread, so no earlier write in this test class is remembered
+        String[] schemas = CompletableFuture.supplyAsync(() -> {
+            try {
+                String primary = currentSchema(manager.getErpPrimaryReadConnection());
+                return new String[] { primary, currentSchema(manager.getErpReadConnection()) };
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }).get();
+        assertEquals("ERPDB", schemas[0]);
+        assertEquals(REPLICA_SCHEMA, schemas[1]);
+    }
+
+    @Test
+    public void testReplicaConnectionsAreReadOnly() throws Exception {
+        boolean readOnly = CompletableFuture.supplyAsync(() -> {
+            try (Connection conn = manager.getErpReadConnection()) {
+                return conn.isReadOnly();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }).get();
+        assertTrue(readOnly);
+    }
+
+    private static String currentSchema(Connection conn) throws SQLException {
+        try (conn; Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT DATABASE()")) {
+            assertTrue(rs.next());
+            return rs.getString(1);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package edu.univ.erp.dao;
+
+import edu.univ.erp.config.DatabaseManager;
+import edu.univ.erp.model.*;
+import edu.univ.erp.util.DatabaseSetup;
+import edu.univ.erp.util.LatencyHistogram;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Throughput baseline for the hot DAO paths. Run with -Pembedded-db for a
+ * repeatable, server-free number; against MariaDB it measures the real stack.
+ */
+public class DaoThroughputBenchmarkTest {
+
+    private static final int STUDENTS = 100;
+    private static final int READS = 200;
+    private static final int ATTENDANCE_DAYS = 10;
+
+    private static UserDao userDao;
+    private static StudentDao studentDao;
+    private static CourseDao courseDao;
+    private static SectionDao sectionDao;
+    private static EnrollmentDao enrollmentDao;
+    private static GradeDao gradeDao;
+    private static AttendanceDao attendanceDao;
+
+    @BeforeAll
+    public static void setUp() throws Exception {
+        DatabaseSetup.init();
+        userDao = new UserDao();
+        studentDao = new StudentDao();
+        courseDao = new CourseDao();
+        sectionDao = new SectionDao();
+        enrollmentDao = new EnrollmentDao();
+        gradeDao = new GradeDao();
+        attendanceDao = new AttendanceDao();
+    }
+
+    @Test
+    public void testDaoThroughput() throws SQLException {
+        System.out.println("DAO throughput on " + DatabaseManager.getInstance().getBackend() + " backend");
+
+        String courseCode = "TPUT_" + UUID.randomUUID().toString().substring(0, 8);
+        courseDao.insertCourse(new Course(courseCode, "Throughput Benchmark", 3));
+        Section section = new Section();
+        section.setCourseId(courseCode);
+        section.setDayTime("Tue 09:00-10:00");
+        section.setRoom("Bench");
+        section.setCapacity(STUDENTS);
+        section.setSemester(1);
+        section.setYear(2023);
+        int sectionId = sectionDao.insertSection(section);
+
+        List<Integer> studentIds = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            String username = "tput_" + UUID.randomUUID().toString().substring(0, 8);
+            int userId = (int) userDao.insertUser(username, "STUDENT", "hash");
+            studentDao.insertStudent(new Student(userId, 90000 + i, "CS", 1));
+            studentIds.add(userId);
+        }
+
+        LatencyHistogram reserve = new LatencyHistogram();
+        for (int studentId : studentIds) {
+            long start = System.nanoTime();
+            assertEquals(EnrollmentDao.Reservation.RESERVED, enrollmentDao.reserveSeat(studentId, sectionId));
+            reserve.recordNanos(System.nanoTime() - start);
+        }
+        report("reserveSeat", reserve);
+
+        LatencyHistogram catalog = new LatencyHistogram();
+        for (int i = 0; i < READS; i++) {
+            long start = System.nanoTime();
+            assertFalse(sectionDao.findCatalog().isEmpty());
+            catalog.recordNanos(System.nanoTime() - start);
+        }
+        report("findCatalog", catalog);
+
+        LatencyHistogram registrations = new LatencyHistogram();
+        for (int i = 0; i < READS; i++) {
+            long start = System.nanoTime();
+            assertEquals(1, enrollmentDao.findRegistrationViews(studentIds.get(i % STUDENTS)).size());
+            registrations.recordNanos(System.nanoTime() - start);
+        }
+        report("findRegistrationViews", registrations);
+
+        List<Enrollment> roster = enrollmentDao.findBySection(sectionId);
+        LatencyHistogram attendance = new LatencyHistogram();
+        for (int day = 0; day < ATTENDANCE_DAYS; day++) {
+            LocalDate date = LocalDate.of(2023, 9, 1).plusDays(day);
+            List<Attendance> marks = new ArrayList<>(roster.size());
+            for (Enrollment enrollment : roster) {
+                marks.add(new Attendance(0, enrollment.getEnrollmentId(), date, "PRESENT"));
+            }
+            long start = System.nanoTime();
+            attendanceDao.saveSectionAttendance(sectionId, date, marks);
+            attendance.recordNanos(System.nanoTime() - start);
+        }
+        report("saveSectionAttendance (" + roster.size() + " rows)", attendance);
+
+        LatencyHistogram gradebook = new LatencyHistogram();
+        for (int i = 0; i < READS; i++) {
+            long start = System.nanoTime();
+            assertEquals(STUDENTS, gradeDao.findGradebookBySection(sectionId).size());
+            gradebook.recordNanos(System.nanoTime() - start);
+        }
+        report("findGradebookBySection", gradebook);
+    }
+
+    private static void report(String operation, LatencyHistogram histogram) {
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        double opsPerSecond = snapshot.sumMicros() == 0 ? 0 : snapshot.count() * 1_000_000.0 / snapshot.sumMicros();
+        System.out.printf("%-40s %8.0f ops/s  p50=%dus p99=%dus%n", operation, opsPerSecond,
+                snapshot.percentileMicros(50), snapshot.percentileMicros(99));
+        assertTrue(snapshot.count() > 0);
+    }
+}
@@ -0,0 +1,63 @@
+package edu.univ.erp.model;
+
+import edu.univ.erp.model.view.EnrollmentView;
+import edu.univ.erp.model.view.Timetable;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MeetingTimeTest {
+
+    @Test
+    public void testParsesDayListsAndRanges() {
+        MeetingTime time = MeetingTime.parse("Mon/Wed 10:00-11:30");
+        assertNotNull(time);
+        assertEquals(List.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY), time.getDays());
+        assertEquals(600, time.getStartMinutes());
+        assertEquals(690, time.getEndMinutes());
+
+        MeetingTime single = MeetingTime.parse("Fri 2:00 PM");
+        assertNotNull(single);
+        assertTrue(single.meetsOn(DayOfWeek.FRIDAY));
+        assertEquals(14 * 60, single.getStartMinutes());
+        assertEquals(60, single.getDurationMinutes());
+
+        assertNull(MeetingTime.parse("TBA"));
+        assertNull(MeetingTime.parse("Someday 10:00"));
+        assertNull(MeetingTime.parse("Mon 11:00-10:00"));
+    }
+
+    @Test
+    public void testOverlapNeedsSharedDayAndIntersectingTimes() {
+        MeetingTime monWed = MeetingTime.parse("Mon/Wed 10:00-11:30");
+        assertTrue(monWed.overlaps(MeetingTime.parse("Wed 11:00-12:00")));
+        assertFalse(monWed.overlaps(MeetingTime.parse("Wed 11:30-12:30")));
+        assertFalse(monWed.overlaps(MeetingTime.parse("Tue/Thu 10:00-11:30")));
+        assertTrue(MeetingTime.parse("Fri 09:00-12:00").overlaps(MeetingTime.parse("Fri 10:00")));
+    }
+
+    @Test
+    public void testTimetableGroupsByDayInStartOrder() {
+        Timetable timetable = Timetable.build(List.of(
+                view(1, "Mon/Wed 14:00-15:30", "ENROLLED"),
+                view(2, "Mon 9:00", "ENROLLED"),
+                view(3, "Mon 8:00", "DROPPED"),
+                view(4, "TBA", "ENROLLED")));
+
+        List<Timetable.Entry> monday = timetable.getEntries(DayOfWeek.MONDAY);
+        assertEquals(2, monday.size());
+        assertEquals(2, monday.get(0).enrollment().getSectionId());
+        assertEquals(1, monday.get(1).enrollment().getSectionId());
+        assertEquals(1, timetable.getEntries(DayOfWeek.WEDNESDAY).size());
+        assertEquals(1, timetable.getUnscheduled().size());
+        assertEquals(3, timetable.getActiveCount());
+    }
+
+    private EnrollmentView view(int sectionId, String dayTime, String status) {
+        return new EnrollmentView(sectionId, sectionId, "C" + sectionId, "Course", dayTime, "R1", status, "TBD",
+                null);
+    }
+}
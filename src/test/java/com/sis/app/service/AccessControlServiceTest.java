@@ -1,5 +1,6 @@
 package edu.univ.erp.service;
 
+import edu.univ.erp.config.DatabaseManager;
 import edu.univ.erp.dao.InstructorDao;
 import edu.univ.erp.dao.SectionDao;
 import edu.univ.erp.dao.StudentDao;
@@ -103,4 +104,43 @@ public class AccessControlServiceTest {
 
         assertFalse(accessControlService.isAdmin(studUserId));
     }
+
+    @Test
+    public void testSessionContextAnswersChecksWithoutQueriesUntilReassigned() throws Exception {
+        String firstName = "inst_" + UUID.randomUUID().toString().substring(0, 8);
+        int firstId = (int) userDao.insertUser(firstName, "INSTRUCTOR", "hash");
+        instructorDao.insertInstructor(new Instructor(firstId, "CS"));
+        String secondName = "inst_" + UUID.randomUUID().toString().substring(0, 8);
+        int secondId = (int) userDao.insertUser(secondName, "INSTRUCTOR", "hash");
+        instructorDao.insertInstructor(new Instructor(secondId, "CS"));
+
+        String courseCode = "TEST_AUTHZ_" + UUID.randomUUID().toString().substring(0, 8);
+        new edu.univ.erp.dao.CourseDao().insertCourse(new edu.univ.erp.model.Course(courseCode, "Authz", 3));
+        Section section = new Section();
+        section.setCourseId(courseCode);
+        section.setInstructorId(firstId);
+        section.setDayTime("Tue 08:00");
+        section.setRoom("102");
+        section.setCapacity(30);
+        section.setSemester(1);
+        section.setYear(2023);
+        int sectionId = sectionDao.insertSection(section);
+
+        AuthorizationContext.open(firstId, "INSTRUCTOR");
+        AuthorizationContext.open(secondId, "INSTRUCTOR");
+        DatabaseManager db = DatabaseManager.getInstance();
+        long erpBefore = db.getErpCheckoutCount();
+        long authBefore = db.getAuthCheckoutCount();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(accessControlService.canEditSection(firstId, sectionId));
+            assertFalse(accessControlService.canEditSection(secondId, sectionId));
+            assertFalse(accessControlService.isAdmin(firstId));
+        }
+        assertEquals(0, db.getErpCheckoutCount() - erpBefore);
+        assertEquals(0, db.getAuthCheckoutCount() - authBefore);
+
+        new AdminService().assignInstructor(sectionId, secondId);
+        assertFalse(accessControlService.canEditSection(firstId, sectionId));
+        assertTrue(accessControlService.canEditSection(secondId, sectionId));
+    }
 }
@@ -0,0 +1,71 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.dao.UserDao;
+import edu.univ.erp.model.User;
+import edu.univ.erp.util.DatabaseSetup;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthServiceTest {
+
+    private static final String PASSWORD = "correct-horse";
+
+    private static UserDao userDao;
+
+    @BeforeAll
+    public static void setUp() throws Exception {
+        DatabaseSetup.init();
+        userDao = new UserDao();
+    }
+
+    private String createUser() throws Exception {
+        String username = "auth_" + UUID.randomUUID().toString().substring(0, 8);
+        userDao.insertUser(username, "STUDENT", BCrypt.hashpw(PASSWORD, BCrypt.gensalt(4)));
+        return username;
+    }
+
+    @Test
+    public void testSuccessfulLoginClearsFailures() throws Exception {
+        String username = createUser();
+        AuthService authService = new AuthService(new LoginExecutor(2, 16), new PasswordPolicy(4));
+
+        assertFalse(authService.login(username, "wrong"));
+        assertEquals(1, userDao.findByUsername(username).getFailedAttempts());
+
+        assertTrue(authService.login(username, PASSWORD));
+        User user = userDao.findByUsername(username);
+        assertEquals(0, user.getFailedAttempts());
+        assertNull(user.getLockoutTime());
+        assertNotNull(user.getUpdatedAt(), "last_login should be set");
+    }
+
+    @Test
+    public void testParallelFailuresAreAllCountedAndLock() throws Exception {
+        String username = createUser();
+        LoginExecutor executor = new LoginExecutor(5, 16);
+        AuthService authService = new AuthService(executor, new PasswordPolicy(4));
+
+        List<CompletableFuture<AuthService.LoginResult>> attempts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            attempts.add(authService.loginAsync(username, "wrong-" + i));
+        }
+        for (CompletableFuture<AuthService.LoginResult> attempt : attempts) {
+            assertFalse(attempt.join().isSuccess());
+        }
+
+        User user = userDao.findByUsername(username);
+        assertEquals(5, user.getFailedAttempts());
+        assertNotNull(user.getLockoutTime());
+        assertEquals(AuthService.LoginResult.Status.LOCKED, authService.loginAsync(username, PASSWORD).join().status());
+        assertThrows(java.sql.SQLException.class, () -> authService.login(username, PASSWORD));
+        executor.shutdown();
+    }
+}
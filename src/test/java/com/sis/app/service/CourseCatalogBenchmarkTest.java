@@ -0,0 +1,130 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.cache.ReferenceDataCache;
+import edu.univ.erp.config.DatabaseManager;
+import edu.univ.erp.dao.*;
+import edu.univ.erp.model.*;
+import edu.univ.erp.model.view.CourseSectionView;
+import edu.univ.erp.util.DatabaseSetup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CourseCatalogBenchmarkTest {
+
+    private static final String[] DAYS = { "Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun" };
+    private static final int SLOT_MINUTES = 15;
+
+    private static StudentService studentService;
+    private static UserDao userDao;
+    private static InstructorDao instructorDao;
+    private static CourseDao courseDao;
+    private static SectionDao sectionDao;
+
+    private final List<Integer> sectionIds = new ArrayList<>();
+    private final List<String> courseCodes = new ArrayList<>();
+    private final List<Integer> instructorIds = new ArrayList<>();
+    private final List<String> usernames = new ArrayList<>();
+
+    @BeforeAll
+    public static void setUp() throws Exception {
+        DatabaseSetup.init();
+        studentService = new StudentService();
+        userDao = new UserDao();
+        instructorDao = new InstructorDao();
+        courseDao = new CourseDao();
+        sectionDao = new SectionDao();
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        for (int sectionId : sectionIds) {
+            sectionDao.delete(sectionId);
+        }
+        DatabaseManager db = DatabaseManager.getInstance();
+        try (Connection conn = db.getErpConnection();
+                PreparedStatement courses = conn.prepareStatement("DELETE FROM courses WHERE code = ?");
+                PreparedStatement instructors = conn.prepareStatement("DELETE FROM instructors WHERE user_id = ?")) {
+            for (String code : courseCodes) {
+                courses.setString(1, code);
+                courses.executeUpdate();
+                ReferenceDataCache.getInstance().invalidateCourse(code);
+            }
+            for (int instructorId : instructorIds) {
+                instructors.setInt(1, instructorId);
+                instructors.executeUpdate();
+            }
+        }
+        for (String username : usernames) {
+            userDao.deleteByUsername(username);
+        }
+    }
+
+    /**
+     * A distinct 15-minute slot per index, so one instructor can teach every
+     * section of a batch without a clash.
+     */
+    private static String slot(int index) {
+        int start = (index / DAYS.length) * SLOT_MINUTES;
+        int end = start + SLOT_MINUTES;
+        return String.format("%s %02d:%02d-%02d:%02d", DAYS[index % DAYS.length], start / 60, start % 60,
+                end / 60, end % 60);
+    }
+
+    @Test
+    public void testCatalogRoundTripsStayConstant() throws SQLException {
+        String courseCode = "BENCH_" + UUID.randomUUID().toString().substring(0, 8);
+        courseDao.insertCourse(new Course(courseCode, "Catalog Benchmark", 3));
+        courseCodes.add(courseCode);
+
+        DatabaseManager db = DatabaseManager.getInstance();
+        int[] batches = { 10, 100, 500 };
+        for (int batch : batches) {
+            // A new instructor per batch keeps the earlier batches' slots free of clashes
+            String instUsername = "inst_" + UUID.randomUUID().toString().substring(0, 8);
+            int instUserId = (int) userDao.insertUser(instUsername, "INSTRUCTOR", "hash");
+            usernames.add(instUsername);
+            instructorDao.insertInstructor(new Instructor(instUserId, "CS"));
+            instructorIds.add(instUserId);
+
+            for (int i = 0; i < batch; i++) {
+                Section section = new Section();
+                section.setCourseId(courseCode);
+                section.setInstructorId(instUserId);
+                section.setDayTime(slot(i));
+                section.setRoom(courseCode + "-" + batch + "-" + i);
+                section.setCapacity(30);
+                section.setSemester(1);
+                section.setYear(2023);
+                sectionIds.add(sectionDao.insertSection(section));
+            }
+
+            // Start each measurement cold so the instructor names cost exactly one batched lookup
+            ReferenceDataCache.getInstance().identities().clear();
+            long erpBefore = db.getErpCheckoutCount();
+            long authBefore = db.getAuthCheckoutCount();
+            long start = System.nanoTime();
+            List<CourseSectionView> catalog = studentService.getCourseCatalog();
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            long erpTrips = db.getErpCheckoutCount() - erpBefore;
+            long authTrips = db.getAuthCheckoutCount() - authBefore;
+
+            System.out.println("Catalog of " + catalog.size() + " sections: " + erpTrips + " ERPDB + "
+                    + authTrips + " AuthDB round trips in " + elapsedMs + " ms");
+
+            assertEquals(1, erpTrips);
+            assertEquals(1, authTrips);
+            assertTrue(catalog.stream().anyMatch(v -> courseCode.equals(v.getCourseCode())
+                    && instUsername.equals(v.getInstructorName())));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.config.DatabaseBackend;
+import edu.univ.erp.config.DatabaseManager;
+import edu.univ.erp.dao.*;
+import edu.univ.erp.model.*;
+import edu.univ.erp.util.DatabaseSetup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class InstructorSectionLookupBenchmarkTest {
+
+    private static final int SECTIONS_PER_INSTRUCTOR = 5;
+    private static final int LOOKUPS = 50;
+    // Estimated rows EXPLAIN may report for an instructor with no sections
+    private static final long MAX_INDEX_ROWS = 10;
+
+    private static InstructorService instructorService;
+    private static UserDao userDao;
+    private static InstructorDao instructorDao;
+    private static CourseDao courseDao;
+    private static SectionDao sectionDao;
+
+    private final List<String> courseCodes = new ArrayList<>();
+    private final List<Integer> instructorIds = new ArrayList<>();
+    private final List<String> usernames = new ArrayList<>();
+
+    @BeforeAll
+    public static void setUp() throws Exception {
+        DatabaseSetup.init();
+        instructorService = new InstructorService();
+        userDao = new UserDao();
+        instructorDao = new InstructorDao();
+        courseDao = new CourseDao();
+        sectionDao = new SectionDao();
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        try (Connection conn = DatabaseManager.getInstance().getErpConnection();
+                PreparedStatement sections = conn.prepareStatement("DELETE FROM sections WHERE course_id = ?");
+                PreparedStatement courses = conn.prepareStatement("DELETE FROM courses WHERE code = ?");
+                PreparedStatement instructors = conn.prepareStatement("DELETE FROM instructors WHERE user_id = ?")) {
+            for (String code : courseCodes) {
+                sections.setString(1, code);
+                sections.executeUpdate();
+                courses.setString(1, code);
+                courses.executeUpdate();
+            }
+            for (int instructorId : instructorIds) {
+                instructors.setInt(1, instructorId);
+                instructors.executeUpdate();
+            }
+        }
+        for (String username : usernames) {
+            userDao.deleteByUsername(username);
+        }
+    }
+
+    @Test
+    public void testLookupUsesInstructorIndex() throws SQLException {
+        assumeTrue(DatabaseManager.getInstance().getBackend() == DatabaseBackend.MARIADB,
+                "EXPLAIN output is MariaDB-specific");
+        try (Connection conn = DatabaseManager.getInstance().getErpConnection();
+                PreparedStatement stmt = conn
+                        .prepareStatement("EXPLAIN SELECT section_id FROM sections WHERE instructor_id = -1");
+                ResultSet rs = stmt.executeQuery()) {
+            assertTrue(rs.next());
+            assertEquals("idx_sections_instructor", rs.getString("key"));
+            assertTrue(rs.getLong("rows") <= MAX_INDEX_ROWS,
+                    "Instructor lookup should not scan the whole sections table; EXPLAIN estimated "
+                            + rs.getLong("rows") + " rows");
+        }
+    }
+
+    @Test
+    public void testLookupTimeStaysFlatAsSectionsGrow() throws SQLException {
+        String instUsername = "inst_" + UUID.randomUUID().toString().substring(0, 8);
+        int instUserId = (int) userDao.insertUser(instUsername, "INSTRUCTOR", "hash");
+        usernames.add(instUsername);
+        instructorDao.insertInstructor(new Instructor(instUserId, "CS"));
+        instructorIds.add(instUserId);
+
+        String fillerUsername = "inst_" + UUID.randomUUID().toString().substring(0, 8);
+        int fillerUserId = (int) userDao.insertUser(fillerUsername, "INSTRUCTOR", "hash");
+        usernames.add(fillerUsername);
+        instructorDao.insertInstructor(new Instructor(fillerUserId, "CS"));
+        instructorIds.add(fillerUserId);
+
+        String courseCode = "IDX_" + UUID.randomUUID().toString().substring(0, 8);
+        courseDao.insertCourse(new Course(courseCode, "Index Benchmark", 3));
+        courseCodes.add(courseCode);
+
+        insertSections(courseCode, instUserId, SECTIONS_PER_INSTRUCTOR);
+
+        int[] universitySizes = { 1_000, 10_000, 30_000 };
+        int inserted = 0;
+        long firstAvgMicros = -1;
+        for (int size : universitySizes) {
+            insertSections(courseCode, fillerUserId, size - inserted);
+            inserted = size;
+
+            instructorService.getSectionsForInstructor(instUserId); // warm up
+            long start = System.nanoTime();
+            List<Section> sections = null;
+            for (int i = 0; i < LOOKUPS; i++) {
+                sections = instructorService.getSectionsForInstructor(instUserId);
+            }
+            long avgMicros = (System.nanoTime() - start) / 1_000 / LOOKUPS;
+            System.out.println("getSectionsForInstructor with " + size + " other sections: " + avgMicros
+                    + " us per lookup");
+
+            assertEquals(SECTIONS_PER_INSTRUCTOR, sections.size());
+            if (firstAvgMicros < 0) {
+                firstAvgMicros = avgMicros;
+            } else {
+                // A full scan grows ~30x between the first and last size; an index lookup should not
+                assertTrue(avgMicros < Math.max(firstAvgMicros * 5, 2_000),
+                        "Lookup slowed from " + firstAvgMicros + " us to " + avgMicros + " us");
+            }
+        }
+    }
+
+    private void insertSections(String courseCode, int instructorId, int count) throws SQLException {
+        try (Connection conn = DatabaseManager.getInstance().getErpConnection();
+                PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO sections (course_id, instructor_id, day_time, room, capacity, semester, year) "
+                                + "VALUES (?, ?, 'Mon 10:00', 'Bench', 30, 1, 2023)")) {
+            conn.setAutoCommit(false);
+            for (int i = 0; i < count; i++) {
+                stmt.setString(1, courseCode);
+                stmt.setInt(2, instructorId);
+                stmt.addBatch();
+                if ((i + 1) % 1_000 == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+            conn.commit();
+            conn.setAutoCommit(true);
+        }
+    }
+}
@@ -94,4 +94,152 @@ public class InstructorServiceTest {
         assertEquals(1, stats.getGradeDistribution().get("D"));
         assertEquals(1, stats.getGradeDistribution().get("F"));
     }
+
+    @Test
+    public void testUpdateGradesBatch() throws SQLException, ServiceException {
+        String instUsername = "inst_" + UUID.randomUUID().toString().substring(0, 8);
+        int instUserId = (int) userDao.insertUser(instUsername, "INSTRUCTOR", "hash");
+        instructorDao.insertInstructor(new Instructor(instUserId, "CS"));
+
+        String courseCode = "GB_" + UUID.randomUUID().toString().substring(0, 8);
+        courseDao.insertCourse(new Course(courseCode, "Batch Course", 3));
+
+        Section section = new Section();
+        section.setCourseId(courseCode);
+        section.setInstructorId(instUserId);
+        section.setDayTime("Tue 10:00");
+        section.setRoom("102");
+        section.setCapacity(30);
+        section.setSemester(1);
+        section.setYear(2023);
+        int sectionId = sectionDao.insertSection(section);
+
+        List<edu.univ.erp.model.view.GradebookRow> rows = new java.util.ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String studUsername = "stud_" + UUID.randomUUID().toString().substring(0, 8);
+            int studUserId = (int) userDao.insertUser(studUsername, "STUDENT", "hash");
+            studentDao.insertStudent(new Student(studUserId, (int) (Math.random() * 10000), "CS", 1));
+            Enrollment enrollment = enrollmentDao.insertEnrollment(studUserId, sectionId);
+            rows.add(new edu.univ.erp.model.view.GradebookRow(enrollment.getEnrollmentId(), studUserId,
+                    studUsername, 0, 80, 90, null, null));
+        }
+
+        instructorService.updateGrades(instUserId, sectionId, rows);
+
+        for (edu.univ.erp.model.view.GradebookRow row : rows) {
+            List<Grade> grades = gradeDao.findByEnrollment(row.getEnrollmentId());
+            assertEquals(3, grades.size());
+            // (80 * 0.4 + 90 * 0.5) / 0.9 = 85.56 -> 86
+            grades.forEach(g -> assertEquals(86, g.getFinalScore()));
+        }
+    }
+
+    @Test
+    public void testDashboardStats() throws SQLException {
+        String instUsername = "inst_" + UUID.randomUUID().toString().substring(0, 8);
+        int instUserId = (int) userDao.insertUser(instUsername, "INSTRUCTOR", "hash");
+        instructorDao.insertInstructor(new Instructor(instUserId, "CS"));
+
+        int[] sectionIds = new int[2];
+        for (int i = 0; i < sectionIds.length; i++) {
+            String courseCode = "DASH_" + UUID.randomUUID().toString().substring(0, 8);
+            courseDao.insertCourse(new Course(courseCode, "Dashboard Course", 3));
+            Section section = new Section();
+            section.setCourseId(courseCode);
+            section.setInstructorId(instUserId);
+            section.setDayTime("Wed 10:00");
+            section.setRoom("103");
+            section.setCapacity(30);
+            section.setSemester(1);
+            section.setYear(2023);
+            sectionIds[i] = sectionDao.insertSection(section);
+        }
+
+        // Two students in the first section, only one of them graded
+        for (int i = 0; i < 2; i++) {
+            String studUsername = "stud_" + UUID.randomUUID().toString().substring(0, 8);
+            int studUserId = (int) userDao.insertUser(studUsername, "STUDENT", "hash");
+            studentDao.insertStudent(new Student(studUserId, (int) (Math.random() * 10000), "CS", 1));
+            Enrollment enrollment = enrollmentDao.insertEnrollment(studUserId, sectionIds[0]);
+            if (i == 0) {
+                gradeDao.upsertGrade(enrollment.getEnrollmentId(), 1, 70, null);
+            }
+        }
+
+        edu.univ.erp.api.types.InstructorDashboardStats stats = instructorService.getDashboardStats(instUserId);
+        assertEquals(2, stats.totalSections());
+        assertEquals(2, stats.totalCourses());
+        assertEquals(2, stats.totalStudents());
+        assertEquals(2, stats.totalEnrollments());
+        assertEquals(1, stats.sectionsWithPendingGrades());
+        assertEquals(1.0, stats.averageClassSize(), 0.001);
+    }
+
+    @Test
+    public void testMarkSectionAttendanceBatch() throws SQLException, ServiceException {
+        String instUsername = "inst_" + UUID.randomUUID().toString().substring(0, 8);
+        int instUserId = (int) userDao.insertUser(instUsername, "INSTRUCTOR", "hash");
+        instructorDao.insertInstructor(new Instructor(instUserId, "CS"));
+
+        String courseCode = "ROLL_" + UUID.randomUUID().toString().substring(0, 8);
+        courseDao.insertCourse(new Course(courseCode, "Roll Call", 3));
+        Section section = new Section();
+        section.setCourseId(courseCode);
+        section.setInstructorId(instUserId);
+        section.setDayTime("Thu 10:00");
+        section.setRoom("104");
+        section.setCapacity(30);
+        section.setSemester(1);
+        section.setYear(2023);
+        int sectionId = sectionDao.insertSection(section);
+
+        java.time.LocalDate date = java.time.LocalDate.of(2023, 10, 5);
+        List<Attendance> roster = new java.util.ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String studUsername = "stud_" + UUID.randomUUID().toString().substring(0, 8);
+            int studUserId = (int) userDao.insertUser(studUsername, "STUDENT", "hash");
+            studentDao.insertStudent(new Student(studUserId, (int) (Math.random() * 10000), "CS", 1));
+            Enrollment enrollment = enrollmentDao.insertEnrollment(studUserId, sectionId);
+            roster.add(new Attendance(0, enrollment.getEnrollmentId(), date, i == 0 ? "ABSENT" : "PRESENT"));
+        }
+
+        instructorService.markSectionAttendance(instUserId, sectionId, date, roster);
+        roster.set(0, new Attendance(0, roster.get(0).getEnrollmentId(), date, "LATE"));
+        instructorService.markSectionAttendance(instUserId, sectionId, date, roster);
+
+        List<Attendance> saved = instructorService.getSectionAttendance(instUserId, sectionId, date);
+        assertEquals(3, saved.size());
+        assertEquals(1, saved.stream().filter(a -> "LATE".equals(a.getStatus())).count());
+        assertEquals(2, saved.stream().filter(a -> "PRESENT".equals(a.getStatus())).count());
+    }
+
+    @Test
+    public void testGradebookLoadLeavesAuthorizationContextCached() throws SQLException, ServiceException {
+        String instUsername = "inst_" + UUID.randomUUID().toString().substring(0, 8);
+        int instUserId = (int) userDao.insertUser(instUsername, "INSTRUCTOR", "hash");
+        instructorDao.insertInstructor(new Instructor(instUserId, "CS"));
+
+        String courseCode = "GB" + UUID.randomUUID().toString().substring(0, 8);
+        courseDao.insertCourse(new Course(courseCode, "Gradebook Course", 3));
+        Section section = new Section();
+        section.setCourseId(courseCode);
+        section.setInstructorId(instUserId);
+        section.setDayTime("Wed 09:00");
+        section.setRoom("103");
+        section.setCapacity(30);
+        section.setSemester(1);
+        section.setYear(2023);
+        int sectionId = sectionDao.insertSection(section);
+
+        // No session context yet, so the first load has to build one
+        AuthorizationContext.close(instUserId);
+        instructorService.getGradebookForSection(instUserId, sectionId);
+
+        edu.univ.erp.config.DatabaseManager db = edu.univ.erp.config.DatabaseManager.getInstance();
+        long erpBefore = db.getErpCheckoutCount();
+        long authBefore = db.getAuthCheckoutCount();
+        assertTrue(AuthorizationContext.forUser(instUserId).ownsSection(sectionId));
+        assertEquals(0, db.getErpCheckoutCount() - erpBefore);
+        assertEquals(0, db.getAuthCheckoutCount() - authBefore);
+    }
 }
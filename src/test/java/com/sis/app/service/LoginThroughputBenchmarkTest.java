@@ -0,0 +1,97 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.dao.UserDao;
+import edu.univ.erp.util.DatabaseSetup;
+import edu.univ.erp.util.LatencyHistogram;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoginThroughputBenchmarkTest {
+
+    private static final int LOGINS_PER_RUN = 48;
+    // Cheaper than production so the benchmark stays quick; the scaling shape is the same
+    private static final int BENCHMARK_COST = 8;
+    private static final String PASSWORD = "benchmark-pass";
+
+    private static String username;
+
+    @BeforeAll
+    public static void setUp() throws Exception {
+        DatabaseSetup.init();
+        username = "login_" + UUID.randomUUID().toString().substring(0, 8);
+        new UserDao().insertUser(username, "STUDENT", BCrypt.hashpw(PASSWORD, BCrypt.gensalt(BENCHMARK_COST)));
+    }
+
+    @Test
+    public void testLoginsPerSecondScaleWithParallelism() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> levels = new ArrayList<>();
+        for (int threads = 1; threads < cores; threads *= 2) {
+            levels.add(threads);
+        }
+        levels.add(cores);
+
+        for (int threads : levels) {
+            LoginExecutor executor = new LoginExecutor(threads, LOGINS_PER_RUN);
+            AuthService authService = new AuthService(executor, new PasswordPolicy(BENCHMARK_COST));
+            long start = System.nanoTime();
+            List<CompletableFuture<AuthService.LoginResult>> results = new ArrayList<>();
+            for (int i = 0; i < LOGINS_PER_RUN; i++) {
+                results.add(authService.loginAsync(username, PASSWORD));
+            }
+            for (CompletableFuture<AuthService.LoginResult> result : results) {
+                assertTrue(result.get(1, TimeUnit.MINUTES).isSuccess());
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            LatencyHistogram.Snapshot verify = executor.getLatency(LoginExecutor.Stage.HASH_VERIFY);
+            LatencyHistogram.Snapshot lookup = executor.getLatency(LoginExecutor.Stage.USER_LOOKUP);
+            System.out.printf("%d/%d cores: %.0f logins/s (verify p50=%dus, lookup p50=%dus)%n", threads, cores,
+                    LOGINS_PER_RUN / seconds, verify.percentileMicros(50), lookup.percentileMicros(50));
+            assertEquals(LOGINS_PER_RUN, executor.getLatency(LoginExecutor.Stage.TOTAL).count());
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFullQueueRejectsInsteadOfQueueingForever() {
+        LoginExecutor executor = new LoginExecutor(1, 1);
+        AuthService authService = new AuthService(executor, new PasswordPolicy(BENCHMARK_COST));
+        List<CompletableFuture<AuthService.LoginResult>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(authService.loginAsync(username, PASSWORD));
+        }
+
+        int rejected = 0;
+        for (CompletableFuture<AuthService.LoginResult> result : results) {
+            try {
+                assertTrue(result.join().isSuccess());
+            } catch (CompletionException e) {
+                assertInstanceOf(ServiceException.class, e.getCause());
+                rejected++;
+            }
+        }
+        assertTrue(rejected > 0);
+        assertEquals(rejected, executor.getRejectedCount());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testTotalIsRecordedBeforeTheAttemptCompletes() {
+        LoginExecutor executor = new LoginExecutor(2, 16);
+        for (int i = 1; i <= 500; i++) {
+            executor.submit(() -> true).join();
+            assertEquals(i, executor.getLatency(LoginExecutor.Stage.TOTAL).count());
+        }
+        executor.shutdown();
+    }
+}
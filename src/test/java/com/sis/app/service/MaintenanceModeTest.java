@@ -1,5 +1,6 @@
 package edu.univ.erp.service;
 
+import edu.univ.erp.config.DatabaseManager;
 import edu.univ.erp.dao.SettingsDao;
 import edu.univ.erp.util.DatabaseSetup;
 import org.junit.jupiter.api.BeforeAll;
@@ -24,7 +25,7 @@ public class MaintenanceModeTest {
     @Test
     public void testToggleMaintenanceMode() throws SQLException, ServiceException {
         // Ensure initially false
-        settingsDao.setMaintenanceMode(false);
+        adminService.toggleMaintenanceMode(false);
         assertFalse(adminService.isMaintenanceMode());
 
         // Enable
@@ -37,4 +38,19 @@ public class MaintenanceModeTest {
         assertFalse(adminService.isMaintenanceMode());
         assertFalse(settingsDao.isMaintenanceMode());
     }
+
+    @Test
+    public void testTogglePushesToSharedFlag() throws SQLException, ServiceException {
+        DatabaseManager db = DatabaseManager.getInstance();
+        try {
+            adminService.toggleMaintenanceMode(true);
+            long erpBefore = db.getErpCheckoutCount();
+            // Seen at once, without re-reading the settings table
+            assertTrue(adminService.isMaintenanceMode());
+            assertEquals(0, db.getErpCheckoutCount() - erpBefore);
+        } finally {
+            adminService.toggleMaintenanceMode(false);
+        }
+        assertFalse(adminService.isMaintenanceMode());
+    }
 }
@@ -0,0 +1,68 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.dao.UserDao;
+import edu.univ.erp.util.DatabaseSetup;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordPolicyTest {
+
+    private static final String PASSWORD = "correct-horse";
+
+    private static UserDao userDao;
+
+    @BeforeAll
+    public static void setUp() throws Exception {
+        DatabaseSetup.init();
+        userDao = new UserDao();
+    }
+
+    @Test
+    public void testCostIsReadFromStoredHash() {
+        assertEquals(4, PasswordPolicy.costOf(BCrypt.hashpw(PASSWORD, BCrypt.gensalt(4))));
+        assertEquals(-1, PasswordPolicy.costOf("hash"));
+        assertEquals(-1, PasswordPolicy.costOf(null));
+
+        PasswordPolicy policy = new PasswordPolicy(5);
+        assertEquals(5, PasswordPolicy.costOf(policy.hash(PASSWORD)));
+        assertFalse(policy.needsRehash(policy.hash(PASSWORD)));
+        assertTrue(policy.needsRehash(BCrypt.hashpw(PASSWORD, BCrypt.gensalt(4))));
+        // A stronger hash written by a faster client is never downgraded
+        assertFalse(policy.needsRehash(BCrypt.hashpw(PASSWORD, BCrypt.gensalt(6))));
+        assertFalse(policy.needsRehash("hash"));
+    }
+
+    @Test
+    public void testCalibrationStaysWithinBounds() {
+        assertEquals(4, PasswordPolicy.calibrate(0, 4, 6).getCost());
+        PasswordPolicy policy = PasswordPolicy.calibrate(50, 4, 6);
+        assertTrue(policy.getCost() >= 4 && policy.getCost() <= 6);
+        assertTrue(policy.getCalibratedMicros() > 0);
+    }
+
+    @Test
+    public void testLoginRehashesToPolicyCost() throws Exception {
+        String username = "rehash_" + UUID.randomUUID().toString().substring(0, 8);
+        userDao.insertUser(username, "STUDENT", BCrypt.hashpw(PASSWORD, BCrypt.gensalt(4)));
+        LoginExecutor executor = new LoginExecutor(1, 4);
+        PasswordPolicy policy = new PasswordPolicy(5);
+        AuthService authService = new AuthService(executor, policy);
+
+        assertTrue(authService.login(username, PASSWORD));
+        String rehashed = userDao.findByUsername(username).getPasswordHash();
+        assertEquals(5, PasswordPolicy.costOf(rehashed));
+        assertEquals(1, executor.getLatency(LoginExecutor.Stage.REHASH).count());
+
+        // The new hash verifies and is left alone on the next login
+        assertTrue(authService.login(username, PASSWORD));
+        assertEquals(rehashed, userDao.findByUsername(username).getPasswordHash());
+        assertEquals(1, executor.getLatency(LoginExecutor.Stage.REHASH).count());
+        assertEquals(2, policy.getVerifyLatency().count());
+        executor.shutdown();
+    }
+}
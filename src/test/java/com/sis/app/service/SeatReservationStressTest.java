@@ -0,0 +1,94 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.dao.*;
+import edu.univ.erp.model.*;
+import edu.univ.erp.util.DatabaseSetup;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SeatReservationStressTest {
+
+    private static final int THREADS = 500;
+    private static final int CAPACITY = 30;
+
+    private static StudentService studentService;
+    private static UserDao userDao;
+    private static StudentDao studentDao;
+    private static CourseDao courseDao;
+    private static SectionDao sectionDao;
+    private static EnrollmentDao enrollmentDao;
+
+    @BeforeAll
+    public static void setUp() throws Exception {
+        DatabaseSetup.init();
+        studentService = new StudentService();
+        userDao = new UserDao();
+        studentDao = new StudentDao();
+        courseDao = new CourseDao();
+        sectionDao = new SectionDao();
+        enrollmentDao = new EnrollmentDao();
+    }
+
+    @Test
+    public void testConcurrentRegistrationNeverOversubscribes() throws Exception {
+        String courseCode = "SEAT_" + UUID.randomUUID().toString().substring(0, 8);
+        courseDao.insertCourse(new Course(courseCode, "Stampede Course", 3));
+
+        Section section = new Section();
+        section.setCourseId(courseCode);
+        section.setDayTime("Mon 10:00");
+        section.setRoom("Hall");
+        section.setCapacity(CAPACITY);
+        section.setSemester(1);
+        section.setYear(2023);
+        int sectionId = sectionDao.insertSection(section);
+
+        List<Integer> studentIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            String username = "stud_" + UUID.randomUUID().toString().substring(0, 8);
+            int userId = (int) userDao.insertUser(username, "STUDENT", "hash");
+            studentDao.insertStudent(new Student(userId, (int) (Math.random() * 10000), "CS", 1));
+            studentIds.add(userId);
+        }
+
+        AtomicInteger registered = new AtomicInteger();
+        AtomicInteger rejectedFull = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int studentId : studentIds) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    studentService.registerForSection(studentId, sectionId);
+                    registered.incrementAndGet();
+                } catch (ServiceException e) {
+                    rejectedFull.incrementAndGet();
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+
+        assertEquals(0, errors.get());
+        assertEquals(CAPACITY, registered.get());
+        assertEquals(THREADS - CAPACITY, rejectedFull.get());
+        assertEquals(CAPACITY, enrollmentDao.countActiveEnrollmentsForSection(sectionId));
+        assertEquals(CAPACITY, sectionDao.findById(sectionId).orElseThrow().getSeatsTaken());
+    }
+}
@@ -1,17 +1,26 @@
 package edu.univ.erp.service;
 
+import edu.univ.erp.config.DatabaseBackend;
+import edu.univ.erp.config.DatabaseManager;
 import edu.univ.erp.dao.*;
 import edu.univ.erp.model.*;
+import edu.univ.erp.model.view.AttendanceSummary;
 import edu.univ.erp.model.view.GradeView;
 import edu.univ.erp.util.DatabaseSetup;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class StudentServiceTest {
 
@@ -102,4 +111,194 @@ public class StudentServiceTest {
         double gpa = studentService.calculateGPA(userId);
         assertEquals(3.43, gpa, 0.01);
     }
+
+    @Test
+    public void testPrerequisitesAndEligibleSections() throws SQLException, ServiceException {
+        String username = "stud_" + UUID.randomUUID().toString().substring(0, 8);
+        int userId = (int) userDao.insertUser(username, "STUDENT", "hash");
+        studentDao.insertStudent(new Student(userId, 103, "CS", 1));
+
+        StringBuilder prefix = new StringBuilder("PQ");
+        for (int i = 0; i < 4; i++) {
+            prefix.append((char) ('A' + (int) (Math.random() * 26)));
+        }
+        String intro = prefix + "101";
+        String followUp = prefix + "102";
+        courseDao.insertCourse(new Course(intro, "Intro", 3));
+        courseDao.insertCourse(new Course(followUp, "Follow Up", 3));
+
+        int introSection = insertSection(intro, "Wed 10:00");
+        int followUpSection = insertSection(followUp, "Thu 10:00");
+
+        Set<Integer> eligible = studentService.getEligibleSectionIds(userId);
+        assertTrue(eligible.contains(introSection));
+        assertFalse(eligible.contains(followUpSection));
+        ServiceException blocked = assertThrows(ServiceException.class,
+                () -> studentService.registerForSection(userId, followUpSection));
+        assertTrue(blocked.getMessage().contains(intro));
+
+        Enrollment enrollment = enrollmentDao.insertEnrollment(userId, introSection);
+        gradeDao.upsertGrade(enrollment.getEnrollmentId(), 1, 70, 70);
+
+        assertTrue(studentService.getEligibleSectionIds(userId).contains(followUpSection));
+        studentService.registerForSection(userId, followUpSection);
+    }
+
+    @Test
+    public void testAttendanceRangeAndSummary() throws SQLException, ServiceException {
+        String username = "stud_" + UUID.randomUUID().toString().substring(0, 8);
+        int userId = (int) userDao.insertUser(username, "STUDENT", "hash");
+        studentDao.insertStudent(new Student(userId, 104, "CS", 1));
+
+        String courseCode = "ATT_" + UUID.randomUUID().toString().substring(0, 8);
+        courseDao.insertCourse(new Course(courseCode, "Attendance", 3));
+        Enrollment enrollment = enrollmentDao.insertEnrollment(userId, insertSection(courseCode, "Wed 10:00"));
+
+        AttendanceDao attendanceDao = new AttendanceDao();
+        LocalDate start = LocalDate.of(2023, 9, 4);
+        String[] statuses = { "PRESENT", "PRESENT", "LATE", "ABSENT", "PRESENT" };
+        for (int i = 0; i < statuses.length; i++) {
+            attendanceDao.saveAttendance(new Attendance(0, enrollment.getEnrollmentId(), start.plusDays(i), statuses[i]));
+        }
+
+        assertEquals(5, studentService.getAttendance(userId).size());
+        List<Attendance> window = studentService.getAttendance(userId, start.plusDays(1), start.plusDays(3));
+        assertEquals(3, window.size());
+        assertEquals(start.plusDays(3), window.get(0).getDate());
+
+        List<AttendanceSummary> summary = studentService.getAttendanceSummary(userId, null, null);
+        assertEquals(1, summary.size());
+        assertEquals(3, summary.get(0).getPresentCount());
+        assertEquals(1, summary.get(0).getAbsentCount());
+        assertEquals(1, summary.get(0).getLateCount());
+        assertEquals(5, summary.get(0).getTotalCount());
+    }
+
+    @Test
+    public void testRegistrationRejectsScheduleClash() throws SQLException, ServiceException {
+        String username = "stud_" + UUID.randomUUID().toString().substring(0, 8);
+        int userId = (int) userDao.insertUser(username, "STUDENT", "hash");
+        studentDao.insertStudent(new Student(userId, 105, "CS", 1));
+
+        String courseCode = "CLASH_" + UUID.randomUUID().toString().substring(0, 8);
+        courseDao.insertCourse(new Course(courseCode, "Clash", 3));
+        int first = insertSection(courseCode, "Mon/Wed 10:00-11:30");
+        int overlapping = insertSection(courseCode, "Wed 11:00-12:00");
+        int backToBack = insertSection(courseCode, "Wed 11:30-12:30");
+
+        studentService.registerForSection(userId, first);
+        ServiceException clash = assertThrows(ServiceException.class,
+                () -> studentService.registerForSection(userId, overlapping));
+        assertTrue(clash.getMessage().startsWith("Schedule clash"));
+        studentService.registerForSection(userId, backToBack);
+    }
+
+    @Test
+    public void testScheduleClashSeesRegistrationsMadeElsewhere() throws SQLException, ServiceException {
+        String username = "stud_" + UUID.randomUUID().toString().substring(0, 8);
+        int userId = (int) userDao.insertUser(username, "STUDENT", "hash");
+        studentDao.insertStudent(new Student(userId, 107, "CS", 1));
+
+        String courseCode = "CLASH_" + UUID.randomUUID().toString().substring(0, 8);
+        courseDao.insertCourse(new Course(courseCode, "Clash", 3));
+        int first = insertSection(courseCode, "Fri 9:00 AM");
+        int overlapping = insertSection(courseCode, "Fri 09:30-10:30");
+
+        // Warm this service's timetable cache before another client registers
+        StudentService thisClient = new StudentService();
+        assertEquals(0, thisClient.getTimetable(userId).getEntries().size());
+        new StudentService().registerForSection(userId, first);
+
+        ServiceException clash = assertThrows(ServiceException.class,
+                () -> thisClient.registerForSection(userId, overlapping));
+        assertTrue(clash.getMessage().startsWith("Schedule clash"));
+    }
+
+    @Test
+    public void testReRegisteringAfterDropReactivatesAndDuplicateKeepsSeat() throws SQLException, ServiceException {
+        String username = "stud_" + UUID.randomUUID().toString().substring(0, 8);
+        int userId = (int) userDao.insertUser(username, "STUDENT", "hash");
+        studentDao.insertStudent(new Student(userId, 106, "CS", 1));
+
+        String courseCode = "REREG_" + UUID.randomUUID().toString().substring(0, 8);
+        courseDao.insertCourse(new Course(courseCode, "Re-register", 3));
+        int sectionId = insertSection(courseCode, "Thu 08:00-09:00");
+
+        studentService.registerForSection(userId, sectionId);
+        studentService.dropSection(userId, sectionId);
+        assertEquals(0, sectionDao.findById(sectionId).orElseThrow().getSeatsTaken());
+
+        // The enrollment row already exists, so this hits the unique key and reactivates it
+        studentService.registerForSection(userId, sectionId);
+        assertTrue(enrollmentDao.findActiveEnrollment(String.valueOf(userId), sectionId).isPresent());
+        assertEquals(1, sectionDao.findById(sectionId).orElseThrow().getSeatsTaken());
+
+        // A duplicate registration gives back the seat it claimed first
+        assertEquals(EnrollmentDao.Reservation.ALREADY_ENROLLED, enrollmentDao.reserveSeat(userId, sectionId));
+        assertEquals(1, sectionDao.findById(sectionId).orElseThrow().getSeatsTaken());
+    }
+
+    @Test
+    public void testDeadlockInsideTheRegistrationUnitIsRetried() throws Exception {
+        assumeTrue(DatabaseManager.getInstance().getBackend() == DatabaseBackend.H2,
+                "Injects the deadlock with an H2 Java trigger");
+        String username = "stud_" + UUID.randomUUID().toString().substring(0, 8);
+        int userId = (int) userDao.insertUser(username, "STUDENT", "hash");
+        studentDao.insertStudent(new Student(userId, 107, "CS", 1));
+
+        String courseCode = "DEADLK_" + UUID.randomUUID().toString().substring(0, 8);
+        courseDao.insertCourse(new Course(courseCode, "Deadlock", 3));
+        int sectionId = insertSection(courseCode, "Fri 08:00-09:00");
+
+        DeadlockOnce.sectionId = sectionId;
+        DeadlockOnce.fired.set(0);
+        try (Connection conn = DatabaseManager.getInstance().getErpConnection();
+                Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TRIGGER deadlock_once BEFORE INSERT ON enrollments FOR EACH ROW CALL \""
+                    + DeadlockOnce.class.getName() + "\"");
+        }
+        try {
+            studentService.registerForSection(userId, sectionId);
+        } finally {
+            try (Connection conn = DatabaseManager.getInstance().getErpConnection();
+                    Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP TRIGGER deadlock_once");
+            }
+        }
+
+        // The first attempt was the deadlock victim and the registration was replayed
+        assertEquals(2, DeadlockOnce.fired.get());
+        assertTrue(enrollmentDao.findActiveEnrollment(String.valueOf(userId), sectionId).isPresent());
+        assertEquals(1, sectionDao.findById(sectionId).orElseThrow().getSeatsTaken());
+    }
+
+    /**
+     * Fails the first enrollment insert into the armed section with the
+     * SQLState and error code of a MariaDB deadlock victim.
+     */
+    public static class DeadlockOnce implements org.h2.api.Trigger {
+        static volatile int sectionId;
+        static final AtomicInteger fired = new AtomicInteger();
+
+        @Override
+        public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+            if (((Number) newRow[2]).intValue() != sectionId) {
+                return;
+            }
+            if (fired.incrementAndGet() == 1) {
+                throw new SQLException("Deadlock found when trying to get lock", "40001", 1213);
+            }
+        }
+    }
+
+    private int insertSection(String courseCode, String dayTime) throws SQLException {
+        Section section = new Section();
+        section.setCourseId(courseCode);
+        section.setDayTime(dayTime);
+        section.setRoom("103");
+        section.setCapacity(30);
+        section.setSemester(1);
+        section.setYear(2023);
+        return sectionDao.insertSection(section);
+    }
 }
@@ -1,12 +1,16 @@
 package edu.univ.erp.test;
 
+import edu.univ.erp.config.DatabaseManager;
+import edu.univ.erp.config.UnitOfWork;
 import edu.univ.erp.dao.*;
 import edu.univ.erp.model.*;
 import edu.univ.erp.util.DatabaseSetup;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -105,6 +109,41 @@ public class PersistenceTest {
         assertEquals(Integer.valueOf(instructorId), retrievedSection.get().getInstructorId());
     }
 
+    @Test
+    public void testMeetingTimeBackfillUsesApplicationParser() throws SQLException {
+        CourseDao courseDao = new CourseDao();
+        String courseCode = "FILL_" + UUID.randomUUID().toString().substring(0, 8);
+        courseDao.insertCourse(new Course(courseCode, "Backfill", 3));
+
+        // Written the way the SQL seed scripts do, without the parsed columns
+        int sectionId;
+        try (java.sql.Connection conn = DatabaseManager.getInstance().getErpConnection();
+                java.sql.PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO sections (course_id, day_time, room, capacity, semester, year) "
+                                + "VALUES (?, 'Fri 9:00 AM', 'Fill', 30, 1, 2023)",
+                        java.sql.Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, courseCode);
+            stmt.executeUpdate();
+            try (java.sql.ResultSet keys = stmt.getGeneratedKeys()) {
+                assertTrue(keys.next());
+                sectionId = keys.getInt(1);
+            }
+        }
+
+        assertTrue(new SectionDao().backfillMeetingTimes() >= 1);
+        try (java.sql.Connection conn = DatabaseManager.getInstance().getErpConnection();
+                java.sql.PreparedStatement stmt = conn.prepareStatement(
+                        "SELECT days_mask, start_minute, end_minute FROM sections WHERE section_id = ?")) {
+            stmt.setInt(1, sectionId);
+            try (java.sql.ResultSet rs = stmt.executeQuery()) {
+                assertTrue(rs.next());
+                assertEquals(16, rs.getInt("days_mask"));
+                assertEquals(9 * 60, rs.getInt("start_minute"));
+                assertEquals(10 * 60, rs.getInt("end_minute"));
+            }
+        }
+    }
+
     @Test
     public void testEnrollmentAndGrades() throws SQLException {
         // Setup dependencies
@@ -186,4 +225,50 @@ public class PersistenceTest {
         }
         assertTrue(foundComp1);
     }
+
+    @Test
+    public void testUnitOfWorkSharesConnectionsAndRollsBack() throws SQLException {
+        UserDao userDao = new UserDao();
+        StudentDao studentDao = new StudentDao();
+        String username = "uow_" + UUID.randomUUID().toString().substring(0, 8);
+        DatabaseManager db = DatabaseManager.getInstance();
+
+        long erpBefore = db.getErpCheckoutCount();
+        long authBefore = db.getAuthCheckoutCount();
+        try (UnitOfWork uow = UnitOfWork.begin()) {
+            int userId = (int) userDao.insertUser(username, "STUDENT", "hash");
+            studentDao.insertStudent(new Student(userId, 4242, "CS", 1));
+            assertTrue(studentDao.findByUserId(userId).isPresent());
+            assertNotNull(userDao.findByUsername(username));
+            // Abandon the unit without committing
+        }
+        // Both databases were served by the unit's one connection
+        assertEquals(1, db.getErpCheckoutCount() - erpBefore);
+        assertEquals(0, db.getAuthCheckoutCount() - authBefore);
+        assertNull(userDao.findByUsername(username));
+
+        try (UnitOfWork uow = UnitOfWork.begin()) {
+            int userId = (int) userDao.insertUser(username, "STUDENT", "hash");
+            studentDao.insertStudent(new Student(userId, 4243, "CS", 1));
+            uow.commit();
+        }
+        User user = userDao.findByUsername(username);
+        assertNotNull(user);
+        assertTrue(studentDao.findByUserId(user.getUserId()).isPresent());
+    }
+
+    @Test
+    public void testRollbackAfterServerDiscardedSavepointMarksUnitRollbackOnly() throws SQLException {
+        try (UnitOfWork uow = UnitOfWork.begin()) {
+            try (Connection conn = DatabaseManager.getInstance().getErpConnection()) {
+                conn.setAutoCommit(false);
+                // What the server does to a deadlock victim: the whole transaction goes, savepoints included
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("ROLLBACK");
+                }
+                assertDoesNotThrow(() -> conn.rollback());
+            }
+            assertThrows(SQLException.class, uow::commit);
+        }
+    }
 }